@@ -0,0 +1,129 @@
+package kz.adem.springboottesting.benchmark;
+
+import kz.adem.springboottesting.model.Employee;
+import kz.adem.springboottesting.service.EmployeeService;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+//Tomcat's platform thread pool against virtual threads with the database concurrency gate, over HTTP.
+//Each operation is one round in which every client has one GET /api/employees in flight at the same time;
+//requests/s is reported as an extra counter and latency percentiles are printed after every iteration.
+//The virtual variant needs Java 21+, 10k clients usually need a raised open file limit (ulimit -n).
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentClientsBenchmark {
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    @Param({"1000", "10000"})
+    private int clients;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest request;
+    private final Histogram latencies = new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3);
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Requests {
+        public long requests;
+        public long errors;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = EmbeddedApplication.start(WebApplicationType.SERVLET,
+                "--server.port=0",
+                "--server.tomcat.max-connections=" + (clients * 2),
+                "--server.tomcat.accept-count=" + clients,
+                "--employees.concurrency.virtual-threads=" + threads.equals("virtual"));
+        EmployeeService employeeService = context.getBean(EmployeeService.class);
+        List<Employee> seed = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            seed.add(Employee.builder()
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .email("employee" + i + "@benchmark.kz")
+                    .build());
+        }
+        employeeService.saveEmployees(seed);
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees?limit=20"))
+                .timeout(Duration.ofMinutes(1))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetLatencies() {
+        latencies.reset();
+    }
+
+    @TearDown(Level.Iteration)
+    public void printLatencies() {
+        System.out.printf("%n%s threads, %d clients: p50 %.1f ms, p99 %.1f ms, max %.1f ms%n", threads, clients,
+                millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(99)),
+                millis(latencies.getMaxValue()));
+    }
+
+    @Benchmark
+    public void round(Requests requests) {
+        AtomicLong errors = new AtomicLong();
+        CompletableFuture<?>[] inFlight = new CompletableFuture<?>[clients];
+        for (int i = 0; i < clients; i++) {
+            long start = System.nanoTime();
+            inFlight[i] = httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, failure) -> {
+                        latencies.recordValue(System.nanoTime() - start);
+                        if (failure != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                        return null;
+                    });
+        }
+        CompletableFuture.allOf(inFlight).join();
+        requests.requests += clients;
+        requests.errors += errors.get();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
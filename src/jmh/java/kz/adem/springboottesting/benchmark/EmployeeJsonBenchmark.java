@@ -0,0 +1,58 @@
+package kz.adem.springboottesting.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import kz.adem.springboottesting.model.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+//Jackson round trip of the Employee payload the controller sends and receives
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmployeeJsonBenchmark {
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private Employee employee;
+    private byte[] json;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        writer = objectMapper.writerFor(Employee.class);
+        reader = objectMapper.readerFor(Employee.class);
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Adem")
+                .lastName("Shanghai")
+                .email("adem@gmail.com")
+                .version(1L)
+                .build();
+        json = writer.writeValueAsBytes(employee);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(employee);
+    }
+
+    @Benchmark
+    public Employee deserialize() throws IOException {
+        return reader.readValue(json);
+    }
+}
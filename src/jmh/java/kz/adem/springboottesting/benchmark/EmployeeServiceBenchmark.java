@@ -0,0 +1,99 @@
+package kz.adem.springboottesting.benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import kz.adem.springboottesting.config.CacheConfig;
+import kz.adem.springboottesting.model.Employee;
+import kz.adem.springboottesting.repository.EmployeeRepository;
+import kz.adem.springboottesting.service.EmployeeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+//Throughput plus SampleTime (latency percentiles); run with -prof gc for allocation per operation
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmployeeServiceBenchmark {
+    @Param({"1000"})
+    private int employees;
+
+    private final AtomicLong emailSequence = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private List<Long> ids;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = EmbeddedApplication.start(WebApplicationType.NONE);
+        employeeService = context.getBean(EmployeeService.class);
+        List<Employee> seed = new ArrayList<>(employees);
+        for (int i = 0; i < employees; i++) {
+            seed.add(newEmployee());
+        }
+        ids = employeeService.saveEmployees(seed).stream().map(Employee::getId).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.getBean(EmployeeRepository.class).deleteAllInBatch();
+        context.close();
+    }
+
+    @Benchmark
+    public Employee saveEmployee() {
+        return employeeService.saveEmployee(newEmployee());
+    }
+
+    //the lookup path itself: without this every call after the first would be a Caffeine (or L2) cache hit
+    @State(Scope.Thread)
+    public static class EmptyCaches {
+        @Setup(Level.Invocation)
+        public void clear(EmployeeServiceBenchmark benchmark) {
+            benchmark.context.getBean(CacheManager.class).getCache(CacheConfig.EMPLOYEES_BY_ID).clear();
+            benchmark.context.getBean(EntityManagerFactory.class).getCache().evict(Employee.class);
+        }
+    }
+
+    @Benchmark
+    public Optional<Employee> getEmployeeById(EmptyCaches emptyCaches) {
+        return employeeService.getEmployeeById(ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public List<Employee> getAllEmployees() {
+        return employeeService.getAllEmployees();
+    }
+
+    private Employee newEmployee() {
+        long n = emailSequence.incrementAndGet();
+        return Employee.builder()
+                .firstName("First" + n)
+                .lastName("Last" + n)
+                .email("employee" + n + "@benchmark.local")
+                .build();
+    }
+}
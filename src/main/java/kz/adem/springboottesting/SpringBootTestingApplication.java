@@ -1,9 +1,12 @@
 package kz.adem.springboottesting;
 
+import kz.adem.springboottesting.config.EmployeeProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
 @SpringBootApplication
+@EnableConfigurationProperties(EmployeeProperties.class)
 public class SpringBootTestingApplication {
 
     public static void main(String[] args) {
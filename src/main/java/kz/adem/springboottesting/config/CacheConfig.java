@@ -0,0 +1,45 @@
+package kz.adem.springboottesting.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NullValue;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String EMPLOYEES_BY_ID = "employeesById";
+
+    @Bean
+    public CaffeineCacheManager cacheManager(EmployeeProperties employeeProperties) {
+        EmployeeProperties.Cache cache = employeeProperties.getCache();
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(EMPLOYEES_BY_ID);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(cache.getMaxSize())
+                .expireAfter(new PositiveNegativeExpiry(cache.getTtl().toNanos(), cache.getNegativeTtl().toNanos()))
+                //hit, miss and eviction counts are published under the cache.* metrics
+                .recordStats());
+        return cacheManager;
+    }
+
+    //missing ids are stored as NullValue by the cache abstraction, those expire after the negative ttl
+    private record PositiveNegativeExpiry(long ttlNanos, long negativeTtlNanos) implements Expiry<Object, Object> {
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            return value == NullValue.INSTANCE ? negativeTtlNanos : ttlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
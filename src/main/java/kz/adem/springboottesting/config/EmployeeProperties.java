@@ -0,0 +1,209 @@
+package kz.adem.springboottesting.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "employees")
+public class EmployeeProperties {
+    //timeout of the service write transactions, kept in whole seconds because @Transactional takes no duration
+    public static final String WRITE_TIMEOUT = "${employees.write-timeout-seconds:4}";
+
+    private int writeTimeoutSeconds = 4;
+    private Page page = new Page();
+    private Export export = new Export();
+    private Batch batch = new Batch();
+    private Cache cache = new Cache();
+    private L2Cache l2Cache = new L2Cache();
+    private Sql sql = new Sql();
+    private Concurrency concurrency = new Concurrency();
+    private Replica replica = new Replica();
+    private Search search = new Search();
+    private EmailFilter emailFilter = new EmailFilter();
+    private Idempotency idempotency = new Idempotency();
+    private WriteBehind writeBehind = new WriteBehind();
+    private Import imports = new Import();
+    private Outbox outbox = new Outbox();
+    private Sync sync = new Sync();
+
+    @Data
+    public static class Page {
+        //page size used when the client does not send a limit
+        private int defaultSize = 50;
+        //hard upper bound, larger limits are clamped to it
+        private int maxSize = 500;
+    }
+
+    @Data
+    public static class Export {
+        //rows the JDBC driver pulls per round trip while streaming
+        private int fetchSize = 1000;
+        //async request timeout of the servlet mode export, instead of MVC's default. 0 means no timeout
+        private Duration timeout = Duration.ofMinutes(30);
+    }
+
+    @Data
+    public static class Batch {
+        //rows per JDBC batch, also used as hibernate.jdbc.batch_size
+        private int size = 50;
+        //maximum number of values bound into a single IN clause
+        private int inClauseSize = 1000;
+        //most employees saveEmployees takes at once, all of them are inserted within the write timeout
+        private int maxRows = 5000;
+    }
+
+    @Data
+    public static class Cache {
+        //maximum number of employees kept by the by-id cache
+        private long maxSize = 10_000;
+        private Duration ttl = Duration.ofMinutes(10);
+        //ids that were not found are cached for a shorter time
+        private Duration negativeTtl = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class L2Cache {
+        //hibernate entity region for Employee
+        private Region entity = new Region(10_000, Duration.ofMinutes(10));
+        //query region for the first/last name finders of EmployeeRepository
+        private Region nameQueries = new Region(1_000, Duration.ofMinutes(10));
+
+        @Data
+        @AllArgsConstructor
+        @NoArgsConstructor
+        public static class Region {
+            private long maxSize;
+            private Duration ttl;
+        }
+    }
+
+    @Data
+    public static class Sql {
+        //statements above this execution time are logged by hibernate (org.hibernate.SQL_SLOW)
+        private long slowQueryThresholdMs = 200;
+        //statements allowed per request unless the endpoint has its own budget
+        private int defaultBudget = 10;
+        //per endpoint budgets keyed by handler, e.g. EmployeeController.createEmployee
+        private Map<String, Integer> budgets = new HashMap<>();
+        //throw instead of logging a warning, meant for tests
+        private boolean failOnBudgetExceeded = false;
+    }
+
+    @Data
+    public static class Concurrency {
+        //run requests on virtual threads, requires Java 21+
+        private boolean virtualThreads = false;
+        //connections borrowed at once, 0 means the size of the connection pool
+        private int dbPermits = 0;
+        //callers waiting longer than this get a 503
+        private Duration acquireTimeout = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Replica {
+        //after a failed replica connection, read-only transactions use the primary for this long
+        private Duration retryAfter = Duration.ofSeconds(10);
+        //default connection-timeout of the replica pool, a replica that is down fails the read this fast
+        //instead of holding it for hikari's 30s before the fallback to the primary
+        private Duration connectionTimeout = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class Search {
+        //suggestions returned when the client does not send a limit
+        private int defaultLimit = 10;
+        //hard upper bound, larger limits are clamped to it
+        private int maxLimit = 100;
+    }
+
+    @Data
+    public static class EmailFilter {
+        //stored emails the Bloom filter is sized for, beyond that the false positive rate climbs
+        private long expectedInsertions = 1_000_000;
+        //target false positive probability at expectedInsertions
+        private double falsePositiveProbability = 0.01;
+    }
+
+    @Data
+    public static class Idempotency {
+        //Idempotency-Key results kept in memory, the least recently used are dropped beyond this
+        private long maxKeys = 10_000;
+        //how long a retry with the same key replays the stored result
+        private Duration ttl = Duration.ofHours(24);
+    }
+
+    @Data
+    public static class WriteBehind {
+        //POST /api/employees queues creates and answers 202 with a tracking id
+        private boolean enabled = false;
+        //queued creates, beyond that clients get 429
+        private int capacity = 10_000;
+        //employees saved per transaction by the flusher
+        private int batchSize = 500;
+        //tracking ids remembered for the status endpoint
+        private long maxTrackedWrites = 100_000;
+        private Duration statusTtl = Duration.ofHours(1);
+    }
+
+    @Data
+    public static class Import {
+        //CSV files are only read from this directory, checkpoints and rejected rows are written next to them
+        private String directory = "imports";
+        //rows saved per transaction, the checkpoint advances after each chunk. A chunk has to fit in the write timeout
+        private int chunkSize = 1000;
+        //part of the file mapped into memory at a time
+        private DataSize windowSize = DataSize.ofMegabytes(64);
+        private int parserThreads = Runtime.getRuntime().availableProcessors();
+    }
+
+    @Data
+    public static class Outbox {
+        //events are served once they are this old, at least twice the write timeout (plus clock skew between instances)
+        private Duration settleDelay = Duration.ofSeconds(10);
+        //how often parked long-poll requests are checked for new events
+        private Duration pollInterval = Duration.ofMillis(500);
+        //upper bound for the wait parameter of the change feed
+        private Duration maxWait = Duration.ofSeconds(30);
+        //events older than this are deleted
+        private Duration retention = Duration.ofDays(7);
+        private Duration purgeInterval = Duration.ofHours(1);
+    }
+
+    @Data
+    public static class Sync {
+        private int defaultLimit = 100;
+        private int maxLimit = 1000;
+        //rows are only synced once their updated_at is this old, so a slow transaction cannot commit behind a token.
+        //At least twice the write timeout (plus clock skew between instances)
+        private Duration settleDelay = Duration.ofSeconds(10);
+    }
+
+    //callers that save in chunks have to stay within what one saveEmployees call takes
+    public void checkBatchRows(int rows, String property) {
+        if (rows > batch.getMaxRows()) {
+            throw new IllegalStateException(property + " must not exceed employees.batch.max-rows (" + batch.getMaxRows() + ")");
+        }
+    }
+
+    //Rows are stamped inside a write transaction and become visible when it commits, at most the write timeout
+    //later. A row stamped before another one can therefore commit after it, and a reader only skips nothing
+    //while the settle delay covers that
+    public void checkSettleDelay(Duration settleDelay, String property) {
+        //hibernate rounds the remaining time down to whole seconds, with 1 every statement finds it expired
+        if (writeTimeoutSeconds < 2) {
+            throw new IllegalStateException("employees.write-timeout-seconds must be at least 2");
+        }
+        Duration required = Duration.ofSeconds(2L * writeTimeoutSeconds);
+        if (settleDelay.compareTo(required) < 0) {
+            throw new IllegalStateException(property + " must be at least twice employees.write-timeout-seconds ("
+                    + required + ")");
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package kz.adem.springboottesting.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.util.ObjectUtils;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+
+//Hibernate second-level and query cache regions, sized from employees.l2-cache.*. Hit and miss counts per
+//region are published as hibernate.second.level.cache.* and hibernate.query.cache.* metrics.
+@Configuration
+@Profile("!reactive")
+public class HibernateCacheConfig {
+    public static final String EMPLOYEES_REGION = "employees";
+    public static final String EMPLOYEES_BY_NAME_REGION = "employees-by-name";
+
+    //a dedicated cache manager per application context, the provider hands out one instance per URI
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(EmployeeProperties employeeProperties) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hibernate-l2-" + ObjectUtils.getIdentityHexString(this)),
+                        getClass().getClassLoader());
+        EmployeeProperties.L2Cache l2Cache = employeeProperties.getL2Cache();
+        cacheManager.createCache(EMPLOYEES_REGION, regionConfiguration(l2Cache.getEntity()));
+        cacheManager.createCache(EMPLOYEES_BY_NAME_REGION, regionConfiguration(l2Cache.getNameQueries()));
+        //query results are checked against these timestamps, so the region is never evicted or expired
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> regionConfiguration(EmployeeProperties.L2Cache.Region region) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(region.getMaxSize()));
+        configuration.setExpireAfterWrite(OptionalLong.of(region.getTtl().toNanos()));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
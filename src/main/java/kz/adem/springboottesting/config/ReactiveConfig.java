@@ -0,0 +1,25 @@
+package kz.adem.springboottesting.config;
+
+import kz.adem.springboottesting.repository.ReactiveEmployeeRepository;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.core.R2dbcEntityOperations;
+import org.springframework.data.r2dbc.repository.support.R2dbcRepositoryFactory;
+
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+    //tomcat is on the classpath for the servlet profile and would otherwise win, netty serves all
+    //connections from a small fixed set of event loop threads (one per core)
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public ReactiveEmployeeRepository reactiveEmployeeRepository(R2dbcEntityOperations entityOperations) {
+        return new R2dbcRepositoryFactory(entityOperations).getRepository(ReactiveEmployeeRepository.class);
+    }
+}
@@ -0,0 +1,61 @@
+package kz.adem.springboottesting.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import kz.adem.springboottesting.datasource.ReadFromPrimaryAspect;
+import kz.adem.springboottesting.datasource.ReadWriteRoutingDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+//replaces the auto-configured DataSource once spring.datasource.replica.url is set
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "spring.datasource.replica", name = "url")
+public class ReplicaDataSourceConfig {
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties primaryDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource() {
+        return primaryDataSourceProperties().initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.replica")
+    public DataSourceProperties replicaDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    //spring.datasource.replica.hikari.connection-timeout still overrides the short default, it is bound afterwards
+    @Bean
+    @ConfigurationProperties("spring.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(EmployeeProperties employeeProperties) {
+        HikariDataSource replica = replicaDataSourceProperties().initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        replica.setConnectionTimeout(employeeProperties.getReplica().getConnectionTimeout().toMillis());
+        return replica;
+    }
+
+    @Bean
+    public ReadFromPrimaryAspect readFromPrimaryAspect() {
+        return new ReadFromPrimaryAspect();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(EmployeeProperties employeeProperties) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primaryDataSource(),
+                replicaDataSource(employeeProperties), employeeProperties.getReplica().getRetryAfter()));
+    }
+}
@@ -0,0 +1,21 @@
+package kz.adem.springboottesting.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import kz.adem.springboottesting.monitoring.SqlStatementBudgetFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class SqlMonitoringConfig {
+    @Bean
+    public FilterRegistrationBean<SqlStatementBudgetFilter> sqlStatementBudgetFilter(EmployeeProperties employeeProperties,
+                                                                                     MeterRegistry meterRegistry) {
+        FilterRegistrationBean<SqlStatementBudgetFilter> registration =
+                new FilterRegistrationBean<>(new SqlStatementBudgetFilter(employeeProperties, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,92 @@
+package kz.adem.springboottesting.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import kz.adem.springboottesting.concurrency.DatabaseConcurrencyGate;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanInitializationException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+//opt-in with employees.concurrency.virtual-threads=true, requires Java 21+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "employees.concurrency", name = "virtual-threads", havingValue = "true")
+public class VirtualThreadsConfig {
+    //one virtual thread per request instead of tomcat's bounded platform thread pool
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(newVirtualThreadPerTaskExecutor());
+    }
+
+    //async requests such as the streaming export
+    @Bean
+    public WebMvcConfigurer virtualThreadsAsyncSupportConfigurer() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.setTaskExecutor(new TaskExecutorAdapter(newVirtualThreadPerTaskExecutor()));
+            }
+        };
+    }
+
+    //wraps the dataSource bean, so every connection handed to hibernate or a JdbcTemplate takes a permit.
+    //static and lazy about its dependencies, post-processors are created before regular beans
+    @Bean
+    public static BeanPostProcessor databaseConcurrencyGatePostProcessor(ObjectProvider<EmployeeProperties> employeeProperties,
+                                                                         ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (!(bean instanceof DataSource dataSource) || !"dataSource".equals(beanName)) {
+                    return bean;
+                }
+                EmployeeProperties.Concurrency concurrency = employeeProperties.getObject().getConcurrency();
+                int permits;
+                try {
+                    permits = concurrency.getDbPermits() > 0 ? concurrency.getDbPermits() : poolSizeOf(dataSource);
+                } catch (SQLException e) {
+                    throw new BeanInitializationException("Could not determine the connection pool size", e);
+                }
+                DatabaseConcurrencyGate gate = new DatabaseConcurrencyGate(dataSource, permits, concurrency.getAcquireTimeout());
+                meterRegistry.ifAvailable(registry -> {
+                    Gauge.builder("employees.db.permits.available", gate, DatabaseConcurrencyGate::getAvailablePermits)
+                            .register(registry);
+                    Gauge.builder("employees.db.permits.waiting", gate, DatabaseConcurrencyGate::getQueueLength)
+                            .register(registry);
+                });
+                return gate;
+            }
+        };
+    }
+
+    private static int poolSizeOf(DataSource dataSource) throws SQLException {
+        if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+            throw new IllegalStateException("Set employees.concurrency.db-permits, the connection pool size is unknown");
+        }
+        return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+    }
+
+    //looked up reflectively so the application still compiles for Java 17
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads require Java 21 or later", e);
+        }
+    }
+}
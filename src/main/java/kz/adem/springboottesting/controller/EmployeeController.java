@@ -1,58 +1,214 @@
 package kz.adem.springboottesting.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import kz.adem.springboottesting.config.EmployeeProperties;
+import kz.adem.springboottesting.dto.CursorPage;
+import kz.adem.springboottesting.dto.EmployeeChanges;
+import kz.adem.springboottesting.dto.EmployeeLookupResult;
+import kz.adem.springboottesting.dto.EmployeePatch;
+import kz.adem.springboottesting.dto.EmployeeSuggestion;
+import kz.adem.springboottesting.dto.EmployeeView;
+import kz.adem.springboottesting.dto.WriteStatus;
 import kz.adem.springboottesting.model.Employee;
 import kz.adem.springboottesting.service.EmployeeService;
+import kz.adem.springboottesting.writebehind.EmployeeWriteBehindQueue;
 import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import static kz.adem.springboottesting.controller.EmployeeETags.eTag;
+import static kz.adem.springboottesting.controller.EmployeeETags.versionOf;
 
 @RestController
 @RequestMapping("/api/employees")
 @AllArgsConstructor
+@Profile("!reactive")
 public class EmployeeController {
+    private static final String EXPORT_TIMEOUT_INTERCEPTOR = EmployeeController.class.getName() + ".exportTimeout";
 
     private EmployeeService employeeService;
+    private EmployeeProperties employeeProperties;
+    private ObjectMapper objectMapper;
+    private IdempotencyStore idempotencyStore;
+    //only present when employees.write-behind.enabled=true
+    private ObjectProvider<EmployeeWriteBehindQueue> writeBehindQueue;
+    //with an Idempotency-Key a retried request gets the first response without saving again
     @PostMapping
+    public ResponseEntity<?> createEmployee(@RequestBody Employee employee,
+                                            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey)
+            throws IOException {
+        if (idempotencyKey == null) {
+            return create(employee);
+        }
+        IdempotencyStore.Result<ResponseEntity<?>> result = idempotencyStore.execute(idempotencyKey,
+                objectMapper.writeValueAsString(employee), () -> create(employee));
+        return ResponseEntity.status(result.value().getStatusCode())
+                .headers(result.value().getHeaders())
+                .header(IdempotencyStore.REPLAYED_HEADER, String.valueOf(result.replayed()))
+                .body(result.value().getBody());
+    }
+
+    //in write-behind mode the employee is only queued, the client follows the tracking id
+    private ResponseEntity<?> create(Employee employee) {
+        EmployeeWriteBehindQueue queue = writeBehindQueue.getIfAvailable();
+        if (queue == null) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(employeeService.saveEmployee(employee));
+        }
+        WriteStatus status = queue.enqueue(employee);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/employees/writes/" + status.getTrackingId()))
+                .body(status);
+    }
+
+    @GetMapping("/writes/{trackingId}")
+    public ResponseEntity<WriteStatus> getWriteStatus(@PathVariable("trackingId") String trackingId){
+        EmployeeWriteBehindQueue queue = writeBehindQueue.getIfAvailable();
+        if (queue == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return queue.getStatus(trackingId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/batch")
     @ResponseStatus(HttpStatus.CREATED)
-    public Employee createEmployee(@RequestBody Employee employee){
-        return employeeService.saveEmployee(employee);
+    public List<Employee> createEmployees(@RequestBody List<Employee> employees){
+        return employeeService.saveEmployees(employees);
     }
 
     @GetMapping
-    public List<Employee> getAllEmployees(){
-        return employeeService.getAllEmployees();
+    public CursorPage<EmployeeView> getAllEmployees(@RequestParam(value = "limit", required = false) Integer limit,
+                                                    @RequestParam(value = "after", required = false) String after){
+        return employeeService.getEmployeesPage(after, limit);
+    }
+    //column selection in SQL: GET /api/employees?fields=id,email
+    @GetMapping(params = {"fields", "!ids"})
+    public CursorPage<Map<String, Object>> getEmployeeFields(@RequestParam("fields") List<String> fields,
+                                                             @RequestParam(value = "limit", required = false) Integer limit,
+                                                             @RequestParam(value = "after", required = false) String after){
+        return employeeService.getEmployeeFieldsPage(fields, after, limit);
+    }
+    //multi-get in one round trip: GET /api/employees?ids=1,2,3
+    @GetMapping(params = "ids")
+    public EmployeeLookupResult getEmployeesByIds(@RequestParam("ids") List<Long> ids){
+        return employeeService.getEmployeesByIds(ids);
+    }
+
+    //same lookup for id lists too long for a query string
+    @PostMapping("/lookup")
+    public EmployeeLookupResult lookupEmployees(@RequestBody List<Long> ids){
+        return employeeService.getEmployeesByIds(ids);
+    }
+
+    //streams the whole table without materializing it, format is ndjson (one object per line) or json (array)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportEmployees(@RequestParam(value = "format", defaultValue = "ndjson") String format,
+                                                                 HttpServletRequest request){
+        boolean jsonArray = "json".equalsIgnoreCase(format);
+        //MVC's default async request timeout would cut off a large export, it gets employees.export.timeout instead.
+        //The interceptor runs right before the async request starts, later the timeout can no longer be changed
+        long timeout = employeeProperties.getExport().getTimeout().toMillis();
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(EXPORT_TIMEOUT_INTERCEPTOR, new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest asyncRequest, Callable<T> task) {
+                ((AsyncWebRequest) asyncRequest).setTimeout(timeout);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(jsonArray ? MediaType.APPLICATION_JSON : MediaType.APPLICATION_NDJSON)
+                .body(outputStream -> writeEmployees(outputStream, jsonArray));
     }
+
+    private void writeEmployees(OutputStream outputStream, boolean jsonArray) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            if (jsonArray) {
+                generator.writeStartArray();
+            } else {
+                //lines are separated explicitly, not by jackson's default space between root values
+                generator.setRootValueSeparator(null);
+            }
+            employeeService.exportEmployees(employee -> {
+                try {
+                    generator.writeObject(employee);
+                    if (!jsonArray) {
+                        generator.writeRaw('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (jsonArray) {
+                generator.writeEndArray();
+            }
+        }
+    }
+
+    //typeahead, answered from the in-memory index without a database round trip
+    @GetMapping("/search")
+    public List<EmployeeSuggestion> searchEmployees(@RequestParam("q") String query,
+                                                    @RequestParam(value = "limit", required = false) Integer limit){
+        return employeeService.searchEmployees(query, limit);
+    }
+
+    //delta sync: start without since, then keep passing the returned nextToken
+    @GetMapping("/changes")
+    public EmployeeChanges getChanges(@RequestParam(value = "since", required = false) String since,
+                                      @RequestParam(value = "limit", required = false) Integer limit){
+        return employeeService.getChanges(since, limit);
+    }
+
+    //the ETag lets spring answer a matching If-None-Match with 304 and no body
     @GetMapping("/{id}")
     public ResponseEntity<Employee> getEmployeeById(@PathVariable("id") Long id){
         return  employeeService.getEmployeeById(id)
-                .map(ResponseEntity::ok)
+                .map(employee -> ResponseEntity.ok().eTag(eTag(employee)).body(employee))
                 .orElseGet(()-> ResponseEntity.notFound().build());
     }
 
     @PutMapping("{id}")
     public ResponseEntity<Employee> updateEmployee(@PathVariable("id") Long employeeId,
-                                                   @RequestBody Employee employee){
-        return employeeService.getEmployeeById(employeeId)
-                .map(savedEmployee ->{
-                    savedEmployee.setFirstName(employee.getFirstName());
-                    savedEmployee.setLastName(employee.getLastName());
-                    savedEmployee.setEmail(employee.getEmail());
-
-                    Employee updatedEmployee = employeeService.updateEmployee(savedEmployee);
-                    return new ResponseEntity<>(updatedEmployee,HttpStatus.OK);
-                })
+                                                   @RequestBody Employee employee,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        return employeeService.updateEmployee(employeeId, employee, versionOf(ifMatch))
+                .map(updatedEmployee -> ResponseEntity.ok().eTag(eTag(updatedEmployee)).body(updatedEmployee))
+                .orElseGet(()-> ResponseEntity.notFound().build());
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<Employee> patchEmployee(@PathVariable("id") Long employeeId,
+                                                  @RequestBody EmployeePatch patch){
+        return employeeService.patchEmployee(employeeId, patch)
+                .map(patchedEmployee -> ResponseEntity.ok().eTag(eTag(patchedEmployee)).body(patchedEmployee))
                 .orElseGet(()-> ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<String> deleteEmployee(@PathVariable("id") Long employeeId){
-        employeeService.deleteEmployee(employeeId);
+    public ResponseEntity<String> deleteEmployee(@PathVariable("id") Long employeeId,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        if (!employeeService.deleteEmployee(employeeId, versionOf(ifMatch))) {
+            return ResponseEntity.notFound().build();
+        }
         return new ResponseEntity<String>("Employee deleted successfully",HttpStatus.OK);
     }
-
-
-
 }
@@ -0,0 +1,30 @@
+package kz.adem.springboottesting.controller;
+
+import kz.adem.springboottesting.exception.PreconditionFailedException;
+import kz.adem.springboottesting.model.Employee;
+
+//the employee version served as ETag and read back from If-Match, shared by both controllers
+final class EmployeeETags {
+    private EmployeeETags() {
+    }
+
+    static String eTag(Employee employee) {
+        return employee.getVersion() == null ? null : "\"" + employee.getVersion() + "\"";
+    }
+
+    //If-Match carries an ETag we handed out, "*" or no header means the write is unconditional
+    static Long versionOf(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        try {
+            return Long.valueOf(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match does not match any version: "+ifMatch);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package kz.adem.springboottesting.controller;
+
+import kz.adem.springboottesting.dto.CursorPage;
+import kz.adem.springboottesting.model.EmployeeEvent;
+import kz.adem.springboottesting.outbox.EmployeeChangeFeed;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api/employees/events")
+@AllArgsConstructor
+@Profile("!reactive")
+public class EmployeeEventController {
+
+    private EmployeeChangeFeed employeeChangeFeed;
+
+    //changes after the cursor in commit order, wait (seconds) holds the request open until there are some
+    @GetMapping
+    public DeferredResult<CursorPage<EmployeeEvent>> getEvents(@RequestParam(value = "after", required = false) String after,
+                                                               @RequestParam(value = "limit", required = false) Integer limit,
+                                                               @RequestParam(value = "wait", defaultValue = "0") long waitSeconds){
+        return employeeChangeFeed.poll(after, limit, Duration.ofSeconds(waitSeconds));
+    }
+}
@@ -0,0 +1,36 @@
+package kz.adem.springboottesting.controller;
+
+import kz.adem.springboottesting.dto.ImportStatus;
+import kz.adem.springboottesting.importer.EmployeeCsvImporter;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+
+@RestController
+@RequestMapping("/api/employees/imports")
+@AllArgsConstructor
+@Profile("!reactive")
+public class EmployeeImportController {
+
+    private EmployeeCsvImporter employeeCsvImporter;
+
+    //starts or resumes the import of a file from the import directory, progress is polled on the Location
+    @PostMapping
+    public ResponseEntity<ImportStatus> startImport(@RequestParam("file") String file){
+        ImportStatus status = employeeCsvImporter.start(file);
+        return ResponseEntity.accepted()
+                //the file name is encoded as a path segment, it may contain spaces or other reserved characters
+                .location(UriComponentsBuilder.fromPath("/api/employees/imports/{file}").encode()
+                        .buildAndExpand(status.getFile()).toUri())
+                .body(status);
+    }
+
+    @GetMapping("/{file}")
+    public ResponseEntity<ImportStatus> getImportStatus(@PathVariable("file") String file){
+        return employeeCsvImporter.getStatus(file)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,72 @@
+package kz.adem.springboottesting.controller;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import kz.adem.springboottesting.config.EmployeeProperties;
+import kz.adem.springboottesting.exception.IdempotencyKeyReusedException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+//Results of requests sent with an Idempotency-Key, kept in a bounded local cache with a ttl. A retry
+//gets the stored result, a concurrent retry waits for the request still in flight. Failed requests are
+//not stored, so their retry runs again.
+@Component
+public class IdempotencyStore {
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final Cache<String, Entry> results;
+
+    public IdempotencyStore(EmployeeProperties employeeProperties) {
+        EmployeeProperties.Idempotency idempotency = employeeProperties.getIdempotency();
+        this.results = Caffeine.newBuilder()
+                .maximumSize(idempotency.getMaxKeys())
+                .expireAfterWrite(idempotency.getTtl())
+                .build();
+    }
+
+    //fingerprint identifies the request body, reusing a key for a different body is rejected
+    @SuppressWarnings("unchecked")
+    public <T> Result<T> execute(String key, String fingerprint, Supplier<T> action) {
+        Entry entry = new Entry(fingerprint, new CompletableFuture<>());
+        Entry existing = results.asMap().putIfAbsent(key, entry);
+        if (existing != null) {
+            if (!existing.fingerprint().equals(fingerprint)) {
+                throw new IdempotencyKeyReusedException("Idempotency-Key was already used for a different request: "+key);
+            }
+            return new Result<>((T) await(existing.result()), true);
+        }
+        try {
+            T value = action.get();
+            entry.result().complete(value);
+            return new Result<>(value, false);
+        } catch (RuntimeException | Error e) {
+            results.asMap().remove(key, entry);
+            entry.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public record Result<T>(T value, boolean replayed) {
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<Object> result) {
+    }
+}
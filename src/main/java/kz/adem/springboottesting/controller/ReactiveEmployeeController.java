@@ -0,0 +1,101 @@
+package kz.adem.springboottesting.controller;
+
+import kz.adem.springboottesting.dto.CursorPage;
+import kz.adem.springboottesting.dto.EmployeeLookupResult;
+import kz.adem.springboottesting.dto.EmployeePatch;
+import kz.adem.springboottesting.model.Employee;
+import kz.adem.springboottesting.service.ReactiveEmployeeService;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static kz.adem.springboottesting.controller.EmployeeETags.eTag;
+import static kz.adem.springboottesting.controller.EmployeeETags.versionOf;
+
+//WebFlux implementation of the EmployeeController contract, active with the reactive profile
+@RestController
+@RequestMapping("/api/employees")
+@AllArgsConstructor
+@Profile("reactive")
+public class ReactiveEmployeeController {
+
+    private ReactiveEmployeeService employeeService;
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Employee> createEmployee(@RequestBody Employee employee){
+        return employeeService.saveEmployee(employee);
+    }
+
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<List<Employee>> createEmployees(@RequestBody List<Employee> employees){
+        return employeeService.saveEmployees(employees).collectList();
+    }
+
+    @GetMapping
+    public Mono<CursorPage<Employee>> getAllEmployees(@RequestParam(value = "limit", required = false) Integer limit,
+                                                      @RequestParam(value = "after", required = false) String after){
+        return employeeService.getEmployeesPage(after, limit);
+    }
+
+    @GetMapping(params = "ids")
+    public Mono<EmployeeLookupResult> getEmployeesByIds(@RequestParam("ids") List<Long> ids){
+        return employeeService.getEmployeesByIds(ids);
+    }
+
+    @PostMapping("/lookup")
+    public Mono<EmployeeLookupResult> lookupEmployees(@RequestBody List<Long> ids){
+        return employeeService.getEmployeesByIds(ids);
+    }
+
+    //the Flux is written as the client reads it, so a slow client slows down the database cursor
+    //instead of buffering the table; format is ndjson (one object per line) or json (array)
+    @GetMapping("/export")
+    public ResponseEntity<Flux<Employee>> exportEmployees(@RequestParam(value = "format", defaultValue = "ndjson") String format){
+        boolean jsonArray = "json".equalsIgnoreCase(format);
+        return ResponseEntity.ok()
+                .contentType(jsonArray ? MediaType.APPLICATION_JSON : MediaType.APPLICATION_NDJSON)
+                .body(employeeService.getAllEmployees());
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Employee>> getEmployeeById(@PathVariable("id") Long id){
+        return employeeService.getEmployeeById(id)
+                .map(employee -> ResponseEntity.ok().eTag(eTag(employee)).body(employee))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PutMapping("{id}")
+    public Mono<ResponseEntity<Employee>> updateEmployee(@PathVariable("id") Long employeeId,
+                                                         @RequestBody Employee employee,
+                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        return employeeService.updateEmployee(employeeId, employee, versionOf(ifMatch))
+                .map(updatedEmployee -> ResponseEntity.ok().eTag(eTag(updatedEmployee)).body(updatedEmployee))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<Employee>> patchEmployee(@PathVariable("id") Long employeeId,
+                                                        @RequestBody EmployeePatch patch){
+        return employeeService.patchEmployee(employeeId, patch)
+                .map(patchedEmployee -> ResponseEntity.ok().eTag(eTag(patchedEmployee)).body(patchedEmployee))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<String>> deleteEmployee(@PathVariable("id") Long employeeId,
+                                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        return employeeService.deleteEmployee(employeeId, versionOf(ifMatch))
+                .map(deleted -> deleted
+                        ? new ResponseEntity<>("Employee deleted successfully", HttpStatus.OK)
+                        : ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,16 @@
+package kz.adem.springboottesting.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+//Read-only transactions started inside the annotated method read from the primary instead of the replica.
+//For reads whose result is cached, a lagging replica would otherwise cache a stale row until the next write
+//evicts it. The transaction stays read-only and the request is not pinned to the primary afterwards.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadFromPrimary {
+}
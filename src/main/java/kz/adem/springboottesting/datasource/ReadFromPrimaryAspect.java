@@ -0,0 +1,14 @@
+package kz.adem.springboottesting.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+//applies ReadFromPrimary, registered together with the ReadWriteRoutingDataSource
+@Aspect
+public class ReadFromPrimaryAspect {
+    @Around("@annotation(kz.adem.springboottesting.datasource.ReadFromPrimary)")
+    public Object readFromPrimary(ProceedingJoinPoint joinPoint) throws Throwable {
+        return ReadWriteRoutingDataSource.readFromPrimary(joinPoint::proceed);
+    }
+}
@@ -0,0 +1,94 @@
+package kz.adem.springboottesting.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+
+//Sends read-only transactions to the replica and everything else to the primary. Has to sit behind a
+//LazyConnectionDataSourceProxy, so the connection is only fetched once the transaction is marked read-only.
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    public enum Route {PRIMARY, REPLICA}
+
+    //set once a request wrote, its later reads stay on the primary so they see their own writes
+    static final String PINNED_TO_PRIMARY = ReadWriteRoutingDataSource.class.getName() + ".PINNED_TO_PRIMARY";
+    //set while a ReadFromPrimary method runs
+    private static final ThreadLocal<Boolean> PRIMARY_READ = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long retryAfterNanos;
+    private volatile long replicaDownUntil;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration retryAfter) {
+        this.primary = primary;
+        this.replica = replica;
+        this.retryAfterNanos = retryAfter.toNanos();
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Route determineCurrentLookupKey() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (request != null) {
+                request.setAttribute(PINNED_TO_PRIMARY, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+            }
+            return Route.PRIMARY;
+        }
+        if (PRIMARY_READ.get() != null
+                || request != null && request.getAttribute(PINNED_TO_PRIMARY, RequestAttributes.SCOPE_REQUEST) != null) {
+            return Route.PRIMARY;
+        }
+        return replicaDownUntil - System.nanoTime() > 0 ? Route.PRIMARY : Route.REPLICA;
+    }
+
+    //a replica that cannot hand out a connection is skipped for retryAfter, reads meanwhile use the primary
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineCurrentLookupKey() == Route.PRIMARY) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            replicaDownUntil = System.nanoTime() + retryAfterNanos;
+            log.warn("Replica unavailable, reading from the primary for the next {} ms: {}",
+                    retryAfterNanos / 1_000_000, e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    //runs action with its read-only transactions on the primary, see ReadFromPrimary
+    public static <T> T readFromPrimary(PrimaryRead<T> action) throws Throwable {
+        if (PRIMARY_READ.get() != null) {
+            return action.read();
+        }
+        PRIMARY_READ.set(Boolean.TRUE);
+        try {
+            return action.read();
+        } finally {
+            PRIMARY_READ.remove();
+        }
+    }
+
+    @FunctionalInterface
+    public interface PrimaryRead<T> {
+        T read() throws Throwable;
+    }
+}
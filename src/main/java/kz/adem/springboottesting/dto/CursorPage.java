@@ -0,0 +1,16 @@
+package kz.adem.springboottesting.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPage<T> {
+    private List<T> content;
+    //opaque cursor for the next page, null when this is the last page
+    private String nextCursor;
+}
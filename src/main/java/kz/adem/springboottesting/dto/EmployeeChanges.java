@@ -0,0 +1,22 @@
+package kz.adem.springboottesting.dto;
+
+import kz.adem.springboottesting.model.Employee;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmployeeChanges {
+    //employees created or updated since the token, in the state they have now
+    private List<Employee> upserts;
+    //ids of employees deleted since the token
+    private List<Long> deletions;
+    //pass as since on the next call, unchanged when nothing new was found
+    private String nextToken;
+    //true when the page was full and the next token should be used right away
+    private boolean hasMore;
+}
@@ -0,0 +1,16 @@
+package kz.adem.springboottesting.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmployeeLookupResult {
+    //found employees, in the order their ids were requested
+    private List<EmployeeView> employees;
+    private List<Long> missingIds;
+}
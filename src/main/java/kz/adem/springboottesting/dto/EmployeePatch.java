@@ -0,0 +1,17 @@
+package kz.adem.springboottesting.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//sparse update body, fields left out (null) are not touched
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EmployeePatch {
+    private String firstName;
+    private String lastName;
+    private String email;
+}
@@ -0,0 +1,18 @@
+package kz.adem.springboottesting.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//typeahead entry served from the search index. The version orders concurrent writes to the index, it is null
+//after an unconditional update whose new version is not known
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmployeeSuggestion {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private Long version;
+}
@@ -0,0 +1,17 @@
+package kz.adem.springboottesting.dto;
+
+import kz.adem.springboottesting.model.Employee;
+
+import java.time.Instant;
+import java.util.List;
+
+//list and lookup representation, read as a projection so no managed entity (or dirty checking snapshot) is created
+public record EmployeeView(Long id, String firstName, String lastName, String email, Long version, Instant updatedAt) {
+    //the columns that can be picked with fields=
+    public static final List<String> FIELDS = List.of("id", "firstName", "lastName", "email", "version", "updatedAt");
+
+    public static EmployeeView from(Employee employee) {
+        return new EmployeeView(employee.getId(), employee.getFirstName(), employee.getLastName(),
+                employee.getEmail(), employee.getVersion(), employee.getUpdatedAt());
+    }
+}
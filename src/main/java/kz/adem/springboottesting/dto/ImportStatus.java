@@ -0,0 +1,23 @@
+package kz.adem.springboottesting.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//progress of a CSV import, counters cover the committed chunks only
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportStatus {
+    public enum State { RUNNING, COMPLETED, FAILED }
+
+    private String file;
+    private State state;
+    private long totalBytes;
+    //bytes of the file up to the last committed chunk, an import resumes from here
+    private long committedBytes;
+    private long importedRows;
+    private long rejectedRows;
+    //set when the import failed
+    private String error;
+}
@@ -0,0 +1,20 @@
+package kz.adem.springboottesting.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//state of a create accepted in write-behind mode, looked up by its tracking id
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class WriteStatus {
+    public enum State { PENDING, CREATED, FAILED }
+
+    private String trackingId;
+    private State state;
+    //set once the employee is created
+    private Long employeeId;
+    //set when the create failed
+    private String error;
+}
@@ -0,0 +1,11 @@
+package kz.adem.springboottesting.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidFieldException extends RuntimeException{
+    public InvalidFieldException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package kz.adem.springboottesting.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+public class PayloadTooLargeException extends RuntimeException{
+    public PayloadTooLargeException(String message) {
+        super(message);
+    }
+}
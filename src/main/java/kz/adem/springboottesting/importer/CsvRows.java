@@ -0,0 +1,66 @@
+package kz.adem.springboottesting.importer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+//parsing and validation of one "firstName,lastName,email" line, quoted fields may contain commas and ""
+final class CsvRows {
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s,;]+@[^@\\s,;]+\\.[^@\\s,;]+$");
+    private static final int MAX_LENGTH = 255;
+
+    private CsvRows() {
+    }
+
+    static List<String> parse(String line) {
+        List<String> fields = new ArrayList<>(3);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    static boolean isHeader(List<String> fields) {
+        return fields.size() == 3 && fields.get(0).equalsIgnoreCase("firstName")
+                && fields.get(1).equalsIgnoreCase("lastName") && fields.get(2).equalsIgnoreCase("email");
+    }
+
+    //the reason the row is rejected, null for a valid row
+    static String validate(List<String> fields) {
+        if (fields.size() != 3) {
+            return "expected 3 columns but found " + fields.size();
+        }
+        if (fields.get(0).isEmpty() || fields.get(1).isEmpty()) {
+            return "firstName and lastName are required";
+        }
+        for (String field : fields) {
+            if (field.length() > MAX_LENGTH) {
+                return "value longer than " + MAX_LENGTH + " characters";
+            }
+        }
+        if (!EMAIL.matcher(fields.get(2)).matches()) {
+            return "invalid email";
+        }
+        return null;
+    }
+}
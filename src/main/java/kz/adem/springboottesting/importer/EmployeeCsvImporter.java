@@ -0,0 +1,302 @@
+package kz.adem.springboottesting.importer;
+
+import kz.adem.springboottesting.config.EmployeeProperties;
+import kz.adem.springboottesting.dto.ImportStatus;
+import kz.adem.springboottesting.exception.ResourceAlreadyExistsException;
+import kz.adem.springboottesting.exception.ResourceNotFoundException;
+import kz.adem.springboottesting.model.Employee;
+import kz.adem.springboottesting.service.EmployeeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//Imports "firstName,lastName,email" CSV files from employees.import.directory. The file is memory-mapped
+//window by window, every window is split at line breaks and parsed by several threads, then its rows are
+//validated, checked against stored emails in bulk and saved in chunks of one transaction each. After every
+//chunk a checkpoint is written, starting the same file again resumes after the last committed chunk.
+//Invalid and duplicate rows go to "<file>.rejected" as "line<TAB>reason<TAB>row".
+@Slf4j
+@Component
+@Profile("!reactive")
+public class EmployeeCsvImporter implements DisposableBean {
+    static final String CHECKPOINT_SUFFIX = ".checkpoint";
+    static final String REJECTED_SUFFIX = ".rejected";
+
+    private final EmployeeService employeeService;
+    private final EmployeeProperties.Import properties;
+    //one import at a time, the chunks already keep the connection pool busy
+    private final ExecutorService jobs = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "employee-import"));
+    private final ExecutorService parsers;
+    private final Map<String, ImportStatus> statuses = new ConcurrentHashMap<>();
+
+    public EmployeeCsvImporter(EmployeeService employeeService, EmployeeProperties employeeProperties) {
+        this.employeeService = employeeService;
+        this.properties = employeeProperties.getImports();
+        employeeProperties.checkBatchRows(properties.getChunkSize(), "employees.imports.chunk-size");
+        AtomicInteger parserThreads = new AtomicInteger();
+        this.parsers = Executors.newFixedThreadPool(properties.getParserThreads(),
+                runnable -> new Thread(runnable, "employee-import-parser-" + parserThreads.incrementAndGet()));
+    }
+
+    public ImportStatus start(String fileName) {
+        Path file = resolve(fileName);
+        ImportCheckpoint checkpoint;
+        long size;
+        try {
+            checkpoint = ImportCheckpoint.read(sibling(file, CHECKPOINT_SUFFIX));
+            size = Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        ImportStatus running = status(fileName, ImportStatus.State.RUNNING, size, checkpoint, null);
+        ImportStatus current = statuses.compute(fileName, (name, previous) ->
+                previous != null && previous.getState() == ImportStatus.State.RUNNING ? previous : running);
+        if (current != running) {
+            throw new ResourceAlreadyExistsException("Import is already running for file: "+fileName);
+        }
+        jobs.execute(() -> run(fileName, file, checkpoint));
+        return running;
+    }
+
+    public Optional<ImportStatus> getStatus(String fileName) {
+        return Optional.ofNullable(statuses.get(fileName));
+    }
+
+    @Override
+    public void destroy() {
+        //a running import stops between chunks and resumes from its checkpoint next time
+        jobs.shutdownNow();
+        parsers.shutdownNow();
+    }
+
+    private void run(String fileName, Path file, ImportCheckpoint checkpoint) {
+        try (FileChannel input = FileChannel.open(file, StandardOpenOption.READ);
+             FileChannel rejects = FileChannel.open(sibling(file, REJECTED_SUFFIX),
+                     StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            rejects.truncate(checkpoint.rejectedBytes());
+            rejects.position(checkpoint.rejectedBytes());
+            long size = input.size();
+            //a single mapping is limited to 2 GB, larger files are mapped one window at a time
+            long windowSize = Math.min(properties.getWindowSize().toBytes(), Integer.MAX_VALUE);
+            while (checkpoint.offset() < size) {
+                long length = Math.min(windowSize, size - checkpoint.offset());
+                MappedByteBuffer window = input.map(FileChannel.MapMode.READ_ONLY, checkpoint.offset(), length);
+                int end = lastLineEnd(window, checkpoint.offset() + length == size);
+                if (end == 0) {
+                    throw new IllegalStateException("Line at byte " + checkpoint.offset() + " is longer than the window size");
+                }
+                List<Row> rows = parse(window, end, checkpoint.offset());
+                for (int from = 0; from < rows.size(); from += properties.getChunkSize()) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedException();
+                    }
+                    checkpoint = commit(rows.subList(from, Math.min(from + properties.getChunkSize(), rows.size())),
+                            checkpoint, rejects);
+                    checkpoint.write(sibling(file, CHECKPOINT_SUFFIX));
+                    statuses.put(fileName, status(fileName, ImportStatus.State.RUNNING, size, checkpoint, null));
+                }
+            }
+            statuses.put(fileName, status(fileName, ImportStatus.State.COMPLETED, size, checkpoint, null));
+            log.info("Imported {}: {} rows imported, {} rejected", fileName, checkpoint.imported(), checkpoint.rejected());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(fileName, checkpoint, "interrupted, start the import again to resume");
+        } catch (Exception e) {
+            log.error("Import of {} failed", fileName, e);
+            fail(fileName, checkpoint, e.getMessage());
+        }
+    }
+
+    //one transaction per chunk, the checkpoint moves past the chunk only after it committed
+    private ImportCheckpoint commit(List<Row> chunk, ImportCheckpoint checkpoint, FileChannel rejects) throws IOException {
+        StringBuilder rejected = new StringBuilder();
+        long rejectedRows = 0;
+        List<Employee> employees = new ArrayList<>(chunk.size());
+        List<Long> employeeLines = new ArrayList<>(chunk.size());
+        List<String> employeeTexts = new ArrayList<>(chunk.size());
+        Set<String> chunkEmails = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Row row = chunk.get(i);
+            long line = checkpoint.lines() + i + 1;
+            if (row.text().isBlank()) {
+                continue;
+            }
+            List<String> fields = CsvRows.parse(row.text());
+            if (line == 1 && CsvRows.isHeader(fields)) {
+                continue;
+            }
+            String reason = CsvRows.validate(fields);
+            //emails are compared lower-cased like the unique index does
+            if (reason == null && !chunkEmails.add(fields.get(2).toLowerCase(Locale.ROOT))) {
+                reason = "duplicate email in file";
+            }
+            if (reason != null) {
+                reject(rejected, line, reason, row.text());
+                rejectedRows++;
+                continue;
+            }
+            employees.add(Employee.builder().firstName(fields.get(0)).lastName(fields.get(1)).email(fields.get(2)).build());
+            employeeLines.add(line);
+            employeeTexts.add(row.text());
+        }
+        List<Employee> toSave = new ArrayList<>(employees.size());
+        List<Integer> toSaveRows = new ArrayList<>(employees.size());
+        Set<String> existing = lowerCased(employeeService.findExistingEmails(employees.stream().map(Employee::getEmail).toList()));
+        for (int i = 0; i < employees.size(); i++) {
+            Employee employee = employees.get(i);
+            if (existing.contains(employee.getEmail().toLowerCase(Locale.ROOT))) {
+                reject(rejected, employeeLines.get(i), "email already exists", employeeTexts.get(i));
+                rejectedRows++;
+            } else {
+                toSave.add(employee);
+                toSaveRows.add(i);
+            }
+        }
+        int imported = toSave.size();
+        if (!toSave.isEmpty()) {
+            try {
+                employeeService.saveEmployees(toSave);
+            } catch (ResourceAlreadyExistsException e) {
+                //an email inserted concurrently after the bulk check rolls back the whole chunk, retry one by one
+                //so only that row is rejected. A crash in between re-imports the chunk, its saved rows are then
+                //rejected as existing
+                imported = 0;
+                for (int i = 0; i < toSave.size(); i++) {
+                    try {
+                        employeeService.saveEmployee(toSave.get(i));
+                        imported++;
+                    } catch (ResourceAlreadyExistsException conflict) {
+                        int row = toSaveRows.get(i);
+                        reject(rejected, employeeLines.get(row), "email already exists", employeeTexts.get(row));
+                        rejectedRows++;
+                    }
+                }
+            }
+        }
+        rejects.write(ByteBuffer.wrap(rejected.toString().getBytes(StandardCharsets.UTF_8)));
+        rejects.force(false);
+        return new ImportCheckpoint(chunk.get(chunk.size() - 1).end(), checkpoint.lines() + chunk.size(),
+                checkpoint.imported() + imported, checkpoint.rejected() + rejectedRows, rejects.position());
+    }
+
+    private static void reject(StringBuilder rejected, long line, String reason, String row) {
+        rejected.append(line).append('\t').append(reason).append('\t').append(row).append('\n');
+    }
+
+    //splits the window at line breaks into one slice per parser thread and keeps the rows in file order
+    private List<Row> parse(MappedByteBuffer window, int end, long windowOffset) throws InterruptedException, ExecutionException {
+        int slices = properties.getParserThreads();
+        List<Callable<List<Row>>> tasks = new ArrayList<>(slices);
+        int from = 0;
+        for (int i = 1; i <= slices && from < end; i++) {
+            int to = i == slices ? end : nextLineStart(window, Math.max(from, (int) ((long) end * i / slices)), end);
+            int sliceFrom = from;
+            tasks.add(() -> parseSlice(window.duplicate(), sliceFrom, to, windowOffset));
+            from = to;
+        }
+        List<Row> rows = new ArrayList<>();
+        for (Future<List<Row>> slice : parsers.invokeAll(tasks)) {
+            rows.addAll(slice.get());
+        }
+        return rows;
+    }
+
+    private static List<Row> parseSlice(ByteBuffer window, int from, int to, long windowOffset) {
+        List<Row> rows = new ArrayList<>();
+        int lineStart = from;
+        for (int i = from; i < to; i++) {
+            if (window.get(i) == '\n' || i == to - 1) {
+                int lineEnd = window.get(i) == '\n' ? i : i + 1;
+                if (lineEnd > lineStart && window.get(lineEnd - 1) == '\r') {
+                    lineEnd--;
+                }
+                byte[] bytes = new byte[lineEnd - lineStart];
+                window.get(lineStart, bytes);
+                rows.add(new Row(new String(bytes, StandardCharsets.UTF_8), windowOffset + i + 1));
+                lineStart = i + 1;
+            }
+        }
+        return rows;
+    }
+
+    //bytes of the window that end with a complete line, the last line of the file may lack a line break
+    private static int lastLineEnd(ByteBuffer window, boolean endOfFile) {
+        if (endOfFile) {
+            return window.limit();
+        }
+        for (int i = window.limit() - 1; i >= 0; i--) {
+            if (window.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private static int nextLineStart(ByteBuffer window, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (window.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return end;
+    }
+
+    private Path resolve(String fileName) {
+        Path directory = Path.of(properties.getDirectory()).toAbsolutePath().normalize();
+        Path file = directory.resolve(fileName).normalize();
+        //only files directly inside the import directory can be imported
+        if (!file.getParent().equals(directory) || !Files.isRegularFile(file)) {
+            throw new ResourceNotFoundException("Import file not found: "+fileName);
+        }
+        return file;
+    }
+
+    private void fail(String fileName, ImportCheckpoint checkpoint, String error) {
+        ImportStatus current = statuses.get(fileName);
+        statuses.put(fileName, status(fileName, ImportStatus.State.FAILED,
+                current == null ? 0 : current.getTotalBytes(), checkpoint, error));
+    }
+
+    private static ImportStatus status(String fileName, ImportStatus.State state, long size, ImportCheckpoint checkpoint, String error) {
+        return new ImportStatus(fileName, state, size, checkpoint.offset(), checkpoint.imported(), checkpoint.rejected(), error);
+    }
+
+    private static Set<String> lowerCased(Set<String> emails) {
+        Set<String> result = new HashSet<>(emails.size());
+        emails.forEach(email -> result.add(email.toLowerCase(Locale.ROOT)));
+        return result;
+    }
+
+    private static Path sibling(Path file, String suffix) {
+        return file.resolveSibling(file.getFileName() + suffix);
+    }
+
+    //one line of the file and the absolute offset right after it
+    private record Row(String text, long end) {
+    }
+}
@@ -0,0 +1,47 @@
+package kz.adem.springboottesting.importer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+//Position after the last committed chunk, written next to the imported file. The rejected-rows file is
+//truncated back to rejectedBytes on resume, so rows of a chunk that never committed are not reported twice.
+record ImportCheckpoint(long offset, long lines, long imported, long rejected, long rejectedBytes) {
+    static final ImportCheckpoint START = new ImportCheckpoint(0, 0, 0, 0, 0);
+
+    static ImportCheckpoint read(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return START;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return new ImportCheckpoint(
+                Long.parseLong(properties.getProperty("offset")),
+                Long.parseLong(properties.getProperty("lines")),
+                Long.parseLong(properties.getProperty("imported")),
+                Long.parseLong(properties.getProperty("rejected")),
+                Long.parseLong(properties.getProperty("rejectedBytes")));
+    }
+
+    //written to a temporary file and moved over the old one, so a crash leaves either checkpoint intact
+    void write(Path file) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("offset", String.valueOf(offset));
+        properties.setProperty("lines", String.valueOf(lines));
+        properties.setProperty("imported", String.valueOf(imported));
+        properties.setProperty("rejected", String.valueOf(rejected));
+        properties.setProperty("rejectedBytes", String.valueOf(rejectedBytes));
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            properties.store(writer, null);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
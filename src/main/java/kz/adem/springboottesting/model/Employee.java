@@ -1,20 +1,50 @@
 package kz.adem.springboottesting.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import kz.adem.springboottesting.config.HibernateCacheConfig;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.Where;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name = "employees")
+//updates only list the columns that actually changed
+@DynamicUpdate
+//deleted rows keep their email with active = null, unique indexes ignore nulls so the email can be reused
+@Table(name = "employees",
+        uniqueConstraints = @UniqueConstraint(name = Employee.EMAIL_CONSTRAINT, columnNames = {"email", "active"}),
+        indexes = @Index(name = "idx_employees_updated_at_id", columnList = "updated_at, id"))
+//tombstones stay in the table for delta sync, every JPQL query and load only sees live rows
+//the service deletes through EmployeeRepository.deleteEmployeeById, removing the entity deletes the row for good
+@Where(clause = "active = true")
+//read-write second-level cache region, see HibernateCacheConfig
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.EMPLOYEES_REGION)
+//same table mapped for spring data r2dbc in the reactive profile
+@org.springframework.data.relational.core.mapping.Table("employees")
 public class Employee {
+    //the unique email index, violations of it are reported as 409
+    public static final String EMAIL_CONSTRAINT = "uk_employees_email";
+    //ids handed out per sequence round trip, the reactive service claims ids from the same sequence
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @org.springframework.data.annotation.Id
+    //pooled sequence instead of IDENTITY so hibernate can batch inserts
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employees_seq")
+    @SequenceGenerator(name = "employees_seq", sequenceName = "employees_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     @Column(name = "first_name",nullable = false)
     private String firstName;
@@ -22,5 +52,36 @@ public class Employee {
     private String lastName;
     @Column(nullable = false)
     private String email;
+    //optimistic lock, also served as the ETag of the employee resource
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    //time of the last write, orders the delta sync together with the id. Always stamped from the JVM clock
+    //(currentTimestamp), the column default only fills rows that existed before the column
+    @ColumnDefault("CURRENT_TIMESTAMP(6)")
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+    //true while the employee exists, null once deleted. Only a soft delete changes it, so a merged
+    //client copy cannot resurrect or delete a row
+    @JsonIgnore
+    @ColumnDefault("true")
+    @Column(updatable = false)
+    private Boolean active;
+
+    @PrePersist
+    void beforeInsert() {
+        active = Boolean.TRUE;
+        updatedAt = currentTimestamp();
+    }
+
+    @PreUpdate
+    void beforeUpdate() {
+        updatedAt = currentTimestamp();
+    }
+
+    //microseconds, the precision updated_at is stored with, so sync tokens compare exactly
+    public static Instant currentTimestamp() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
 
 }
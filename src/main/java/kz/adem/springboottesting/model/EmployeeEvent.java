@@ -0,0 +1,66 @@
+package kz.adem.springboottesting.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+//Outbox row written in the same transaction as the employee change it describes. The id orders the
+//change feed and is the position a consumer resumes from.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "employee_events", indexes = @Index(name = "idx_employee_events_created_at", columnList = "created_at"))
+//written through r2dbc by the reactive profile, see ReactiveEmployeeServiceImpl
+@org.springframework.data.relational.core.mapping.Table("employee_events")
+public class EmployeeEvent {
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    @Id
+    @org.springframework.data.annotation.Id
+    //one sequence call per event: a pooled block would let every instance hand out ids from its own range,
+    //and an instance could then commit ids far below the ones the feed already served
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_events_seq")
+    @SequenceGenerator(name = "employee_events_seq", sequenceName = "employee_events_seq", allocationSize = 1)
+    private Long id;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Type type;
+    @Column(name = "employee_id", nullable = false)
+    private Long employeeId;
+    //state after the change, null for deletes
+    @Column(name = "first_name")
+    private String firstName;
+    @Column(name = "last_name")
+    private String lastName;
+    private String email;
+    //version after the change when it is known
+    private Long version;
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public static EmployeeEvent of(Type type, Employee employee) {
+        return EmployeeEvent.builder()
+                .type(type)
+                .employeeId(employee.getId())
+                .firstName(employee.getFirstName())
+                .lastName(employee.getLastName())
+                .email(employee.getEmail())
+                .version(employee.getVersion())
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    public static EmployeeEvent deleted(Long employeeId) {
+        return EmployeeEvent.builder()
+                .type(Type.DELETED)
+                .employeeId(employeeId)
+                .createdAt(Instant.now())
+                .build();
+    }
+}
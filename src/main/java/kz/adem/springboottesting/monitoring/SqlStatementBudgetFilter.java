@@ -0,0 +1,62 @@
+package kz.adem.springboottesting.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import kz.adem.springboottesting.config.EmployeeProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+//counts the SQL statements of each request and checks them against the budget of its endpoint
+@Slf4j
+@RequiredArgsConstructor
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+    private final EmployeeProperties employeeProperties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementStats stats = SqlStatementStats.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementStats.end();
+        }
+        request.setAttribute(SqlStatementStats.REQUEST_ATTRIBUTE, stats);
+        String endpoint = endpointOf(request);
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .description("SQL statements issued per request")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        EmployeeProperties.Sql sql = employeeProperties.getSql();
+        int budget = sql.getBudgets().getOrDefault(endpoint, sql.getDefaultBudget());
+        if (stats.getStatements() > budget) {
+            String message = String.format("%s %s issued %d SQL statements (%d ms), budget of %s is %d",
+                    request.getMethod(), request.getRequestURI(), stats.getStatements(),
+                    stats.getExecutionTime().toMillis(), endpoint, budget);
+            if (sql.isFailOnBudgetExceeded()) {
+                throw new IllegalStateException(message);
+            }
+            log.warn(message);
+        }
+    }
+
+    //budgets are keyed by handler, e.g. EmployeeController.createEmployee
+    private static String endpointOf(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod handlerMethod) {
+            return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        }
+        return "unmapped";
+    }
+}
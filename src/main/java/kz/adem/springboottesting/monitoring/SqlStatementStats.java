@@ -0,0 +1,49 @@
+package kz.adem.springboottesting.monitoring;
+
+import java.time.Duration;
+
+//SQL statements issued by the current request thread, fed by hibernate through
+//StatementCountingInspector and StatementTimingListener
+public final class SqlStatementStats {
+    public static final String REQUEST_ATTRIBUTE = SqlStatementStats.class.getName();
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long executionNanos;
+    private long executionStart;
+
+    public static SqlStatementStats begin() {
+        SqlStatementStats stats = new SqlStatementStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    //null when the calling thread is not tracked, e.g. outside of an HTTP request
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    public void statementPrepared() {
+        statements++;
+    }
+
+    public void executionStarted() {
+        executionStart = System.nanoTime();
+    }
+
+    public void executionEnded() {
+        executionNanos += System.nanoTime() - executionStart;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public Duration getExecutionTime() {
+        return Duration.ofNanos(executionNanos);
+    }
+}
@@ -0,0 +1,15 @@
+package kz.adem.springboottesting.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+//registered as hibernate.session_factory.statement_inspector, sees every statement hibernate prepares
+public class StatementCountingInspector implements StatementInspector {
+    @Override
+    public String inspect(String sql) {
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null) {
+            stats.statementPrepared();
+        }
+        return sql;
+    }
+}
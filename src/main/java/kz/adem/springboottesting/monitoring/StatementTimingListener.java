@@ -0,0 +1,40 @@
+package kz.adem.springboottesting.monitoring;
+
+import org.hibernate.BaseSessionEventListener;
+
+//registered as hibernate.session.events.auto, hibernate creates one instance per session
+public class StatementTimingListener extends BaseSessionEventListener {
+    @Override
+    public void jdbcExecuteStatementStart() {
+        started();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        ended();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        started();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        ended();
+    }
+
+    private static void started() {
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null) {
+            stats.executionStarted();
+        }
+    }
+
+    private static void ended() {
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null) {
+            stats.executionEnded();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package kz.adem.springboottesting.outbox;
+
+import kz.adem.springboottesting.config.EmployeeProperties;
+import kz.adem.springboottesting.dto.CursorPage;
+import kz.adem.springboottesting.model.EmployeeEvent;
+import kz.adem.springboottesting.repository.EmployeeEventRepository;
+import kz.adem.springboottesting.util.CursorCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+//Change feed over the employee_events outbox. A consumer passes the cursor of its last page and gets the
+//events after it. Sequence ids are handed out before commit, so a transaction can commit an id lower than
+//one already visible. Events are therefore only served once they are older than the settle delay, and write
+//transactions are bounded by the write timeout so none can commit after that. Long-polling consumers are
+//parked and woken by one cheap existence query per poll interval.
+@Slf4j
+@Component
+@Profile("!reactive")
+public class EmployeeChangeFeed implements DisposableBean {
+    private final EmployeeEventRepository eventRepository;
+    private final EmployeeProperties employeeProperties;
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "employee-change-feed"));
+
+    public EmployeeChangeFeed(EmployeeEventRepository eventRepository, EmployeeProperties employeeProperties) {
+        this.eventRepository = eventRepository;
+        this.employeeProperties = employeeProperties;
+        EmployeeProperties.Outbox outbox = employeeProperties.getOutbox();
+        employeeProperties.checkSettleDelay(outbox.getSettleDelay(), "employees.outbox.settle-delay");
+        scheduler.scheduleWithFixedDelay(this::wakeWaiters, outbox.getPollInterval().toMillis(),
+                outbox.getPollInterval().toMillis(), TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::purge, outbox.getPurgeInterval().toMillis(),
+                outbox.getPurgeInterval().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public CursorPage<EmployeeEvent> read(String after, Integer limit) {
+        long afterId = afterId(after);
+        return page(query(afterId, size(limit), settledBefore()), afterId);
+    }
+
+    //answers right away when events are available, otherwise once they are or when wait runs out
+    public DeferredResult<CursorPage<EmployeeEvent>> poll(String after, Integer limit, Duration wait) {
+        long afterId = afterId(after);
+        int size = size(limit);
+        Duration maxWait = employeeProperties.getOutbox().getMaxWait();
+        Duration timeout = wait.compareTo(maxWait) > 0 ? maxWait : wait;
+        CursorPage<EmployeeEvent> page = page(query(afterId, size, settledBefore()), afterId);
+        DeferredResult<CursorPage<EmployeeEvent>> result = new DeferredResult<>(Math.max(1, timeout.toMillis()), () -> page);
+        if (!page.getContent().isEmpty() || timeout.isZero() || timeout.isNegative()) {
+            result.setResult(page);
+            return result;
+        }
+        Waiter waiter = new Waiter(afterId, size, result);
+        waiters.add(waiter);
+        result.onCompletion(() -> waiters.remove(waiter));
+        return result;
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    void wakeWaiters() {
+        if (waiters.isEmpty()) {
+            return;
+        }
+        try {
+            Instant settledBefore = settledBefore();
+            long lowestCursor = waiters.stream().mapToLong(Waiter::afterId).min().orElseThrow();
+            if (!eventRepository.existsByIdGreaterThanAndCreatedAtLessThanEqual(lowestCursor, settledBefore)) {
+                return;
+            }
+            for (Waiter waiter : waiters) {
+                List<EmployeeEvent> events = query(waiter.afterId(), waiter.size(), settledBefore);
+                if (!events.isEmpty()) {
+                    waiter.result().setResult(page(events, waiter.afterId()));
+                }
+            }
+        } catch (RuntimeException e) {
+            //waiters stay parked and are retried on the next tick
+            log.warn("Checking the change feed for new events failed", e);
+        }
+    }
+
+    void purge() {
+        try {
+            int deleted = eventRepository.deleteCreatedBefore(Instant.now().minus(employeeProperties.getOutbox().getRetention()));
+            if (deleted > 0) {
+                log.info("Purged {} employee events older than {}", deleted, employeeProperties.getOutbox().getRetention());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Purging employee events failed", e);
+        }
+    }
+
+    private List<EmployeeEvent> query(long afterId, int size, Instant settledBefore) {
+        return eventRepository.findByIdGreaterThanAndCreatedAtLessThanEqualOrderByIdAsc(afterId, settledBefore,
+                PageRequest.of(0, size));
+    }
+
+    //the next cursor is always set, an empty page hands back the cursor it was asked for
+    private static CursorPage<EmployeeEvent> page(List<EmployeeEvent> events, long afterId) {
+        long lastId = events.isEmpty() ? afterId : events.get(events.size() - 1).getId();
+        return new CursorPage<>(events, CursorCodec.encode(lastId));
+    }
+
+    private Instant settledBefore() {
+        return Instant.now().minus(employeeProperties.getOutbox().getSettleDelay());
+    }
+
+    private int size(Integer limit) {
+        EmployeeProperties.Page page = employeeProperties.getPage();
+        return limit == null || limit <= 0 ? page.getDefaultSize() : Math.min(limit, page.getMaxSize());
+    }
+
+    private static long afterId(String after) {
+        Long id = CursorCodec.decode(after);
+        return id == null ? 0L : id;
+    }
+
+    private record Waiter(long afterId, int size, DeferredResult<CursorPage<EmployeeEvent>> result) {
+    }
+}
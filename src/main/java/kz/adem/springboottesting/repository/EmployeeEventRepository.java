@@ -0,0 +1,30 @@
+package kz.adem.springboottesting.repository;
+
+import jakarta.persistence.QueryHint;
+import kz.adem.springboottesting.model.EmployeeEvent;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+//not read-only: the feed reads the primary, a lagging replica could show a later event before an earlier one
+public interface EmployeeEventRepository extends JpaRepository<EmployeeEvent, Long> {
+    //seeks on the primary key past the consumer's cursor, only events older than createdBefore are settled.
+    //loaded read-only, the events are never modified so hibernate keeps no snapshot for dirty checking
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<EmployeeEvent> findByIdGreaterThanAndCreatedAtLessThanEqualOrderByIdAsc(Long id, Instant createdBefore, Pageable pageable);
+
+    boolean existsByIdGreaterThanAndCreatedAtLessThanEqual(Long id, Instant createdBefore);
+
+    @Transactional
+    @Modifying
+    @Query("delete from EmployeeEvent e where e.createdAt < :createdBefore")
+    int deleteCreatedBefore(@Param("createdBefore") Instant createdBefore);
+}
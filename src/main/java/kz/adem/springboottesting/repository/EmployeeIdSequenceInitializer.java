@@ -0,0 +1,57 @@
+package kz.adem.springboottesting.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import kz.adem.springboottesting.model.Employee;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.sequence.SequenceSupport;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+//Moves employees_seq past the ids already in the table before the first request. Hibernate creates the
+//sequence starting at 1, which on a table filled under IDENTITY would hand out ids that are taken. The
+//pooled optimizer owns (value - allocationSize, value] for every value it reads, so the next value has to
+//be at least max(id) + allocationSize. db/employees-schema.sql does the same for the reactive profile.
+@Slf4j
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class EmployeeIdSequenceInitializer implements InitializingBean {
+    static final String SEQUENCE = "employees_seq";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final DataSource dataSource;
+
+    @Override
+    public void afterPropertiesSet() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        //tombstones keep their ids, so they count as well
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from employees", Long.class);
+        if (maxId == null) {
+            return;
+        }
+        long nextValue = maxId + Employee.ID_ALLOCATION_SIZE;
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        SequenceSupport sequenceSupport = dialect.getSequenceSupport();
+        if (sequenceSupport.supportsSequences()) {
+            //reading the value uses it up, that only skips one block
+            Long current = jdbcTemplate.queryForObject(sequenceSupport.getSequenceNextValString(SEQUENCE), Long.class);
+            if (current != null && current < nextValue) {
+                jdbcTemplate.execute("alter sequence " + SEQUENCE + " restart with " + nextValue);
+                log.info("Moved {} from {} to {}, past the existing employee ids", SEQUENCE, current, nextValue);
+            }
+        } else {
+            //MySQL has no sequences, hibernate keeps the next value in a one row table instead
+            int updated = jdbcTemplate.update("update " + SEQUENCE + " set next_val = ? where next_val < ?", nextValue, nextValue);
+            if (updated > 0) {
+                log.info("Moved {} to {}, past the existing employee ids", SEQUENCE, nextValue);
+            }
+        }
+    }
+}
@@ -1,27 +1,102 @@
 package kz.adem.springboottesting.repository;
 
+import jakarta.persistence.QueryHint;
+import kz.adem.springboottesting.config.HibernateCacheConfig;
+import kz.adem.springboottesting.datasource.ReadFromPrimary;
+import kz.adem.springboottesting.dto.EmployeeView;
 import kz.adem.springboottesting.model.Employee;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface EmployeeRepository extends JpaRepository<Employee,Long> {
+public interface EmployeeRepository extends JpaRepository<Employee,Long>, EmployeeRepositoryCustom {
+    //Read-only transactions go to the replica, which may lag. Rows read there are not put into the
+    //second-level cache (cache mode GET), or a stale row would be served after the write that evicted it
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "GET"))
+    List<Employee> findAll();
+    //declared queries do not inherit readOnly from SimpleJpaRepository, it is what routes them to the replica
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "GET"))
     Optional<Employee> findEmployeeByEmail(String email);
+    //keyset page: seeks past the last seen id on the primary key instead of using OFFSET.
+    //the record projection selects just its columns, nothing is added to the persistence context
+    List<EmployeeView> findViewsByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    List<EmployeeView> findViewsByIdIn(Collection<Long> ids);
+    //returns which of the given emails are already taken, in a single IN query
+    @Query("select e.email from Employee e where e.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+    //single statement writes, the affected row count tells whether the id (and the version, when given) matched
+    @Transactional
+    @Modifying
+    @Query("update Employee e set e.firstName = :firstName, e.lastName = :lastName, e.email = :email, " +
+            "e.updatedAt = :updatedAt, e.version = e.version + 1 " +
+            "where e.id = :id and e.active = true and (:version is null or e.version = :version)")
+    int updateEmployeeById(@Param("id") Long id, @Param("firstName") String firstName,
+                           @Param("lastName") String lastName, @Param("email") String email,
+                           @Param("version") Long version, @Param("updatedAt") Instant updatedAt);
+    //version written by an unconditional updateEmployeeById, the row stays locked by it until the transaction ends
+    @Query("select e.version from Employee e where e.id = :id")
+    Long findVersionById(@Param("id") Long id);
+    //soft delete: the row stays behind as a tombstone so delta sync clients learn about the deletion
+    @Transactional
+    @Modifying
+    @Query("update Employee e set e.active = null, e.updatedAt = :updatedAt, e.version = e.version + 1 " +
+            "where e.id = :id and e.active = true and (:version is null or e.version = :version)")
+    int deleteEmployeeById(@Param("id") Long id, @Param("version") Long version, @Param("updatedAt") Instant updatedAt);
+    //delta sync page: live rows and tombstones written after the (updatedAt, id) position, walking
+    //idx_employees_updated_at_id. Native so that the @Where filter on the entity does not hide tombstones,
+    //and kept out of the second-level cache where a tombstone would be found by id
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
+    @Query(value = "select * from employees e where (e.updated_at > :updatedAt or (e.updated_at = :updatedAt and e.id > :id)) " +
+            "and e.updated_at <= :settledBefore order by e.updated_at, e.id limit :limit", nativeQuery = true)
+    List<Employee> findChanges(@Param("updatedAt") Instant updatedAt, @Param("id") long id,
+                               @Param("settledBefore") Instant settledBefore, @Param("limit") int limit);
+    //the name finders are served from the query cache, results are invalidated whenever employees is written.
+    //hibernate cannot tell which tables native SQL reads, the native finders declare the employees query space.
+    //What they cache is loaded from the primary, a lagging replica would cache a stale result
     //define custom query using JPQL with index params
+    @ReadFromPrimary
+    @Transactional(readOnly = true)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.EMPLOYEES_BY_NAME_REGION)})
     @Query("select e from Employee e where e.firstName = ?1 and e.lastName = ?2")
     Employee findByJPQL(String firstName, String lastName);
 
     //define custom query using JPQL with named params
+    @ReadFromPrimary
+    @Transactional(readOnly = true)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.EMPLOYEES_BY_NAME_REGION)})
     @Query("select e from Employee e where e.firstName = :firstName and e.lastName = :lastName")
     Employee findByJPQLNamedParams(@Param("firstName") String firstName,@Param("lastName") String lastName);
     //define native query using SQL with index params
-    @Query(value = "select * from employees e where e.first_name = ?1 and e.last_name = ?2",nativeQuery = true)
+    @ReadFromPrimary
+    @Transactional(readOnly = true)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.EMPLOYEES_BY_NAME_REGION),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "employees")})
+    @Query(value = "select * from employees e where e.first_name = ?1 and e.last_name = ?2 and e.active = true",nativeQuery = true)
     Employee findByNativeSQL(String firstName, String lastName);
 
     //define native query using SQL with named params
-    @Query(value = "select * from employees e where e.first_name = :firstName and e.last_name = :lastName",nativeQuery = true)
+    @ReadFromPrimary
+    @Transactional(readOnly = true)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.EMPLOYEES_BY_NAME_REGION),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "employees")})
+    @Query(value = "select * from employees e where e.first_name = :firstName and e.last_name = :lastName and e.active = true",nativeQuery = true)
     Employee findByNativeSQLNamed(@Param("firstName")String firstName,@Param("lastName") String lastName);
 
 
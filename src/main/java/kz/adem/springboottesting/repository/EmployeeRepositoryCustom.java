@@ -0,0 +1,16 @@
+package kz.adem.springboottesting.repository;
+
+import kz.adem.springboottesting.model.Employee;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public interface EmployeeRepositoryCustom {
+    //streams every employee through a JDBC cursor, entities are detached as they are read
+    Stream<Employee> streamAll(int fetchSize);
+    //keyset page over the given Employee attributes only, each row maps attribute name to value in the given order
+    List<Map<String, Object>> findFieldsByIdGreaterThan(Long id, List<String> fields, int limit);
+    //pushes pending inserts to the database and empties the persistence context between batches
+    void flushAndClear();
+}
@@ -0,0 +1,62 @@
+package kz.adem.springboottesting.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import kz.adem.springboottesting.model.Employee;
+import org.hibernate.CacheMode;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class EmployeeRepositoryCustomImpl implements EmployeeRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<Employee> streamAll(int fetchSize) {
+        return entityManager.createQuery("select e from Employee e order by e.id", Employee.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                //a full scan would evict the hot entries, and it may run on the replica
+                .setHint(HibernateHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+                .getResultStream()
+                //keep the persistence context empty so memory stays flat for any table size
+                .peek(entityManager::detach);
+    }
+
+    //a criteria tuple query, so the SELECT list holds exactly the requested columns
+    @Override
+    public List<Map<String, Object>> findFieldsByIdGreaterThan(Long id, List<String> fields, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Employee> employee = query.from(Employee.class);
+        query.multiselect(fields.stream().<Selection<?>>map(field -> employee.get(field).alias(field)).toList())
+                .where(builder.greaterThan(employee.get("id"), id))
+                .orderBy(builder.asc(employee.get("id")));
+        List<Tuple> tuples = entityManager.createQuery(query).setMaxResults(limit).getResultList();
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String field : fields) {
+                row.put(field, tuple.get(field));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @Override
+    public void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
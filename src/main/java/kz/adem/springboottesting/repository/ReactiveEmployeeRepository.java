@@ -0,0 +1,71 @@
+package kz.adem.springboottesting.repository;
+
+import kz.adem.springboottesting.model.Employee;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Collection;
+
+//R2DBC counterpart of EmployeeRepository, used by the reactive profile. Employee is a JPA entity, so
+//JPA repository scanning would claim (and reject) this interface; it is created in ReactiveConfig instead
+@NoRepositoryBean
+public interface ReactiveEmployeeRepository extends R2dbcRepository<Employee, Long> {
+    //soft deleted rows (active = null) are filtered explicitly, R2DBC does not know about the entity's @Where
+    //keyset page, see EmployeeRepository
+    Flux<Employee> findByIdGreaterThanAndActiveTrueOrderByIdAsc(Long id, Pageable pageable);
+    Flux<Employee> findAllByActiveTrueOrderByIdAsc();
+
+    @Override
+    @Query("select * from employees where id = :id and active = true")
+    Mono<Employee> findById(@Param("id") Long id);
+
+    @Override
+    @Query("select * from employees where id in (:ids) and active = true")
+    Flux<Employee> findAllById(@Param("ids") Iterable<Long> ids);
+
+    @Override
+    @Query("select count(*) > 0 from employees where id = :id and active = true")
+    Mono<Boolean> existsById(@Param("id") Long id);
+
+    @Query("select email from employees where email in (:emails) and active = true")
+    Flux<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Modifying
+    @Query("update employees set first_name = :firstName, last_name = :lastName, email = :email, " +
+            "updated_at = :updatedAt, version = version + 1 " +
+            "where id = :id and active = true and (:version is null or version = :version)")
+    Mono<Integer> updateEmployeeById(@Param("id") Long id, @Param("firstName") String firstName,
+                                     @Param("lastName") String lastName, @Param("email") String email,
+                                     @Param("version") Long version, @Param("updatedAt") Instant updatedAt);
+    @Query("select version from employees where id = :id")
+    Mono<Long> findVersionById(@Param("id") Long id);
+    //soft delete, see EmployeeRepository
+    @Modifying
+    @Query("update employees set active = null, updated_at = :updatedAt, version = version + 1 " +
+            "where id = :id and active = true and (:version is null or version = :version)")
+    Mono<Integer> deleteEmployeeById(@Param("id") Long id, @Param("version") Long version,
+                                     @Param("updatedAt") Instant updatedAt);
+
+    //the table hibernate uses for employees_seq on MySQL, the row stays locked until the transaction ends
+    @Modifying
+    @Query("update employees_seq set next_val = next_val + :increment")
+    Mono<Integer> advanceIdSequence(@Param("increment") long increment);
+
+    @Query("select next_val from employees_seq")
+    Mono<Long> findIdSequenceValue();
+
+    //the table hibernate uses for employee_events_seq on MySQL, same locking as employees_seq
+    @Modifying
+    @Query("update employee_events_seq set next_val = next_val + :increment")
+    Mono<Integer> advanceEventIdSequence(@Param("increment") long increment);
+
+    @Query("select next_val from employee_events_seq")
+    Mono<Long> findEventIdSequenceValue();
+}
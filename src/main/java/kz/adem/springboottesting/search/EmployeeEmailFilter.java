@@ -0,0 +1,91 @@
+package kz.adem.springboottesting.search;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import kz.adem.springboottesting.config.EmployeeProperties;
+import kz.adem.springboottesting.util.BloomFilter;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+//Bloom filter of every stored email, lets the batch insert skip the existence query for emails that are
+//certainly new. It only grows (deleted emails stay as possible hits) and is rebuilt on restart. Emails
+//are lower-cased because the unique index compares them case-insensitively.
+@Component
+public class EmployeeEmailFilter implements MeterBinder {
+    private final BloomFilter filter;
+    //until the startup load is done every email is a possible hit
+    private volatile boolean loaded;
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder queried = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    public EmployeeEmailFilter(EmployeeProperties employeeProperties) {
+        EmployeeProperties.EmailFilter properties = employeeProperties.getEmailFilter();
+        this.filter = new BloomFilter(properties.getExpectedInsertions(), properties.getFalsePositiveProbability());
+    }
+
+    public void add(String email) {
+        if (email != null) {
+            filter.put(normalize(email));
+        }
+    }
+
+    public void markLoaded() {
+        loaded = true;
+    }
+
+    public boolean mightExist(String email) {
+        return !loaded || email == null || filter.mightContain(normalize(email));
+    }
+
+    //emails answered by the filter alone
+    public void recordSkipped(int emails) {
+        skipped.add(emails);
+    }
+
+    //emails the filter let through to the database and how many of them actually existed
+    public void recordQueried(int emails, int found) {
+        queried.add(emails);
+        if (loaded) {
+            falsePositives.add(emails - found);
+        }
+    }
+
+    //share of absent emails that still needed a query
+    public double getFalsePositiveRate() {
+        long falsePositive = falsePositives.sum();
+        long absent = skipped.sum() + falsePositive;
+        return absent == 0 ? 0 : (double) falsePositive / absent;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("employees.email.filter.memory", filter, BloomFilter::sizeInBytes)
+                .baseUnit("bytes")
+                .description("Size of the email Bloom filter bit array")
+                .register(registry);
+        Gauge.builder("employees.email.filter.expected.fpp", filter, BloomFilter::expectedFalsePositiveProbability)
+                .description("False positive probability predicted from the bits set so far")
+                .register(registry);
+        Gauge.builder("employees.email.filter.false.positive.rate", this, EmployeeEmailFilter::getFalsePositiveRate)
+                .description("Observed share of absent emails that still needed a database query")
+                .register(registry);
+        FunctionCounter.builder("employees.email.filter.checks", skipped, LongAdder::sum)
+                .tag("outcome", "skipped")
+                .register(registry);
+        FunctionCounter.builder("employees.email.filter.checks", queried, LongAdder::sum)
+                .tag("outcome", "queried")
+                .register(registry);
+        FunctionCounter.builder("employees.email.filter.checks", falsePositives, LongAdder::sum)
+                .tag("outcome", "false_positive")
+                .register(registry);
+    }
+
+    private static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,45 @@
+package kz.adem.springboottesting.search;
+
+import kz.adem.springboottesting.service.EmployeeService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+//fills the search index and the email filter at startup with one pass over the table,
+//EmployeeServiceImpl keeps both current afterwards. Requests are already served while it runs, so the
+//index keeps writes and removals that happen during the pass over the rows read before them
+@Slf4j
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class EmployeeIndexLoader implements ApplicationRunner {
+    private final EmployeeService employeeService;
+    private final EmployeeSearchIndex searchIndex;
+    private final EmployeeEmailFilter emailFilter;
+    private final PlatformTransactionManager transactionManager;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long started = System.nanoTime();
+        searchIndex.startLoad();
+        Long indexed;
+        try {
+            //the outer writable transaction keeps the export on the primary, a lagging replica
+            //would leave out writes the incremental updates never replay
+            indexed = new TransactionTemplate(transactionManager)
+                    .execute(status -> employeeService.exportEmployees(employee -> {
+                        searchIndex.load(employee);
+                        emailFilter.add(employee.getEmail());
+                    }));
+        } finally {
+            searchIndex.finishLoad();
+        }
+        emailFilter.markLoaded();
+        log.info("Indexed {} employees in {} ms", indexed, (System.nanoTime() - started) / 1_000_000);
+    }
+}
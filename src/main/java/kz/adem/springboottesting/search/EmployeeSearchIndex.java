@@ -0,0 +1,151 @@
+package kz.adem.springboottesting.search;
+
+import kz.adem.springboottesting.dto.EmployeeSuggestion;
+import kz.adem.springboottesting.model.Employee;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+//In-process prefix index over first name, last name and email. Every term is stored as "term\0id" in a
+//sorted set, so all matches of a prefix form one contiguous range that is read without locking.
+@Component
+public class EmployeeSearchIndex {
+    private static final char SEPARATOR = '\0';
+
+    private final NavigableSet<String> terms = new ConcurrentSkipListSet<>();
+    private final Map<Long, EmployeeSuggestion> suggestions = new ConcurrentHashMap<>();
+    //ids removed while the startup load runs, null otherwise
+    private volatile Set<Long> removedDuringLoad;
+
+    //a write after commit, skipped when the index already holds a newer version of the employee
+    public void index(Employee employee) {
+        if (employee.getId() == null) {
+            return;
+        }
+        EmployeeSuggestion suggestion = suggestionOf(employee);
+        suggestions.compute(employee.getId(), (id, previous) ->
+                isOlder(suggestion, previous) ? previous : replace(previous, suggestion));
+    }
+
+    //Entry read by the startup load, which runs while writes are already being indexed. It only fills gaps:
+    //an employee removed since the load started stays removed, and an entry written meanwhile is kept
+    //unless the loaded version is known to be newer
+    public void load(Employee employee) {
+        if (employee.getId() == null) {
+            return;
+        }
+        EmployeeSuggestion suggestion = suggestionOf(employee);
+        suggestions.compute(employee.getId(), (id, previous) -> {
+            Set<Long> removed = removedDuringLoad;
+            if (removed != null && removed.contains(id)) {
+                return previous;
+            }
+            if (previous != null && (previous.getVersion() == null || !isOlder(previous, suggestion))) {
+                return previous;
+            }
+            return replace(previous, suggestion);
+        });
+    }
+
+    //removals are remembered until finishLoad, so the load cannot bring back an employee deleted after it was read
+    public void startLoad() {
+        removedDuringLoad = ConcurrentHashMap.newKeySet();
+    }
+
+    public void finishLoad() {
+        removedDuringLoad = null;
+    }
+
+    public void remove(Long id) {
+        //recorded under the same per-id lock that load() checks it in
+        suggestions.compute(id, (key, previous) -> {
+            Set<Long> removed = removedDuringLoad;
+            if (removed != null) {
+                removed.add(id);
+            }
+            if (previous != null) {
+                termsOf(previous).forEach(terms::remove);
+            }
+            return null;
+        });
+    }
+
+    //first limit employees by matching term in alphabetical order, an employee matching on several fields counts once
+    public List<EmployeeSuggestion> search(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Set<Long> ids = new LinkedHashSet<>();
+        for (String term : terms.tailSet(normalized)) {
+            if (!term.startsWith(normalized) || ids.size() == limit) {
+                break;
+            }
+            ids.add(Long.valueOf(term.substring(term.lastIndexOf(SEPARATOR) + 1)));
+        }
+        List<EmployeeSuggestion> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            EmployeeSuggestion suggestion = suggestions.get(id);
+            //a concurrent update may have changed the employee after its term was read
+            if (suggestion != null && matches(suggestion, normalized)) {
+                result.add(suggestion);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return suggestions.size();
+    }
+
+    //compute serializes writers of the same id, so its old terms are always the ones being replaced
+    private EmployeeSuggestion replace(EmployeeSuggestion previous, EmployeeSuggestion suggestion) {
+        if (previous != null) {
+            termsOf(previous).forEach(terms::remove);
+        }
+        terms.addAll(termsOf(suggestion));
+        return suggestion;
+    }
+
+    //unknown versions are not ordered, the later write wins
+    private static boolean isOlder(EmployeeSuggestion suggestion, EmployeeSuggestion previous) {
+        return previous != null && previous.getVersion() != null && suggestion.getVersion() != null
+                && suggestion.getVersion() < previous.getVersion();
+    }
+
+    private static EmployeeSuggestion suggestionOf(Employee employee) {
+        return new EmployeeSuggestion(employee.getId(), employee.getFirstName(), employee.getLastName(),
+                employee.getEmail(), employee.getVersion());
+    }
+
+    private static List<String> termsOf(EmployeeSuggestion suggestion) {
+        List<String> result = new ArrayList<>(3);
+        for (String value : new String[]{suggestion.getFirstName(), suggestion.getLastName(), suggestion.getEmail()}) {
+            if (value != null) {
+                result.add(normalize(value) + SEPARATOR + suggestion.getId());
+            }
+        }
+        return result;
+    }
+
+    private static boolean matches(EmployeeSuggestion suggestion, String prefix) {
+        return startsWith(suggestion.getFirstName(), prefix) || startsWith(suggestion.getLastName(), prefix)
+                || startsWith(suggestion.getEmail(), prefix);
+    }
+
+    private static boolean startsWith(String value, String prefix) {
+        return value != null && normalize(value).startsWith(prefix);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
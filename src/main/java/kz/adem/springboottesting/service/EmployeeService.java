@@ -1,14 +1,39 @@
 package kz.adem.springboottesting.service;
 
+import kz.adem.springboottesting.dto.CursorPage;
+import kz.adem.springboottesting.dto.EmployeeChanges;
+import kz.adem.springboottesting.dto.EmployeeLookupResult;
+import kz.adem.springboottesting.dto.EmployeePatch;
+import kz.adem.springboottesting.dto.EmployeeSuggestion;
+import kz.adem.springboottesting.dto.EmployeeView;
 import kz.adem.springboottesting.model.Employee;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface EmployeeService {
      Employee saveEmployee(Employee employee);
+     List<Employee> saveEmployees(List<Employee> employees);
+     //which of the given emails are already stored, checked in bulk
+     Set<String> findExistingEmails(Collection<String> emails);
      List<Employee> getAllEmployees();
+     CursorPage<EmployeeView> getEmployeesPage(String after, Integer limit);
+     //same page with only the given fields (see EmployeeView.FIELDS), the id is always included
+     CursorPage<Map<String, Object>> getEmployeeFieldsPage(List<String> fields, String after, Integer limit);
+     long exportEmployees(Consumer<Employee> consumer);
+     //prefix match on first name, last name or email, limit falls back to the configured default
+     List<EmployeeSuggestion> searchEmployees(String query, Integer limit);
      Optional <Employee> getEmployeeById(Long id);
+     EmployeeLookupResult getEmployeesByIds(List<Long> ids);
      Employee updateEmployee(Employee employee);
-     void deleteEmployee(Long id);
+     //expectedVersion is optional, when given the write only applies to that version
+     Optional<Employee> updateEmployee(Long id, Employee employee, Long expectedVersion);
+     Optional<Employee> patchEmployee(Long id, EmployeePatch patch);
+     boolean deleteEmployee(Long id, Long expectedVersion);
+     //upserts and deletions written after the since token (from the start when null), limit falls back to the configured default
+     EmployeeChanges getChanges(String since, Integer limit);
 }
@@ -0,0 +1,24 @@
+package kz.adem.springboottesting.service;
+
+import kz.adem.springboottesting.dto.CursorPage;
+import kz.adem.springboottesting.dto.EmployeeLookupResult;
+import kz.adem.springboottesting.dto.EmployeePatch;
+import kz.adem.springboottesting.model.Employee;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+//non-blocking mirror of EmployeeService, an empty Mono stands for an empty Optional
+public interface ReactiveEmployeeService {
+     Mono<Employee> saveEmployee(Employee employee);
+     Flux<Employee> saveEmployees(List<Employee> employees);
+     Flux<Employee> getAllEmployees();
+     Mono<CursorPage<Employee>> getEmployeesPage(String after, Integer limit);
+     Mono<Employee> getEmployeeById(Long id);
+     Mono<EmployeeLookupResult> getEmployeesByIds(List<Long> ids);
+     //expectedVersion is optional, when given the write only applies to that version
+     Mono<Employee> updateEmployee(Long id, Employee employee, Long expectedVersion);
+     Mono<Employee> patchEmployee(Long id, EmployeePatch patch);
+     Mono<Boolean> deleteEmployee(Long id, Long expectedVersion);
+}
@@ -0,0 +1,37 @@
+package kz.adem.springboottesting.service.impl;
+
+import kz.adem.springboottesting.exception.InvalidEmployeeException;
+import kz.adem.springboottesting.exception.ResourceAlreadyExistsException;
+import kz.adem.springboottesting.model.Employee;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+//only a violation of the unique email index is a conflict, anything else (null column, value too long) is bad input
+final class ConstraintViolations {
+    private ConstraintViolations() {
+    }
+
+    static RuntimeException rejected(String email, DataIntegrityViolationException e) {
+        if (isEmailTaken(e)) {
+            return new ResourceAlreadyExistsException("Employee already exist with given email: "+email, e);
+        }
+        return new InvalidEmployeeException("Employee violates a database constraint", e);
+    }
+
+    static boolean isEmailTaken(DataIntegrityViolationException e) {
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return names(violation.getConstraintName());
+            }
+        }
+        //R2DBC has no hibernate exception to ask, its driver message names the violated index
+        return names(e.getMostSpecificCause().getMessage());
+    }
+
+    //drivers report the name qualified or upper-cased (employees.uk_employees_email, PUBLIC.UK_EMPLOYEES_EMAIL_INDEX_8)
+    private static boolean names(String constraint) {
+        return constraint != null && constraint.toLowerCase(Locale.ROOT).contains(Employee.EMAIL_CONSTRAINT);
+    }
+}
@@ -1,45 +1,434 @@
 package kz.adem.springboottesting.service.impl;
 
-import kz.adem.springboottesting.exception.ResourceNotFoundException;
+import io.micrometer.core.annotation.Timed;
+import kz.adem.springboottesting.config.CacheConfig;
+import kz.adem.springboottesting.config.EmployeeProperties;
+import kz.adem.springboottesting.datasource.ReadFromPrimary;
+import kz.adem.springboottesting.dto.CursorPage;
+import kz.adem.springboottesting.dto.EmployeeChanges;
+import kz.adem.springboottesting.dto.EmployeeLookupResult;
+import kz.adem.springboottesting.dto.EmployeePatch;
+import kz.adem.springboottesting.dto.EmployeeSuggestion;
+import kz.adem.springboottesting.dto.EmployeeView;
+import kz.adem.springboottesting.exception.InvalidEmployeeException;
+import kz.adem.springboottesting.exception.InvalidFieldException;
+import kz.adem.springboottesting.exception.PayloadTooLargeException;
+import kz.adem.springboottesting.exception.PreconditionFailedException;
+import kz.adem.springboottesting.exception.ResourceAlreadyExistsException;
 import kz.adem.springboottesting.model.Employee;
+import kz.adem.springboottesting.model.EmployeeEvent;
+import kz.adem.springboottesting.repository.EmployeeEventRepository;
 import kz.adem.springboottesting.repository.EmployeeRepository;
+import kz.adem.springboottesting.search.EmployeeEmailFilter;
+import kz.adem.springboottesting.search.EmployeeSearchIndex;
 import kz.adem.springboottesting.service.EmployeeService;
+import kz.adem.springboottesting.util.CursorCodec;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Profile("!reactive")
 @RequiredArgsConstructor
-public class EmployeeServiceImpl implements EmployeeService {
+//one timer per method (tagged with class and method) with a percentile histogram
+@Timed(value = "employee.service", histogram = true)
+public class EmployeeServiceImpl implements EmployeeService, InitializingBean {
     private final EmployeeRepository employeeRepository;
+    //every write records its outbox event in the same transaction, bounded by the write timeout so it cannot
+    //commit after the change feed and the delta sync consider its rows settled
+    private final EmployeeEventRepository eventRepository;
+    private final EmployeeProperties employeeProperties;
+    private final EmployeeSearchIndex searchIndex;
+    private final EmployeeEmailFilter emailFilter;
+    private final CacheManager cacheManager;
+
     @Override
+    public void afterPropertiesSet() {
+        employeeProperties.checkSettleDelay(employeeProperties.getSync().getSettleDelay(), "employees.sync.settle-delay");
+    }
+
+    @Override
+    @Transactional(timeoutString = EmployeeProperties.WRITE_TIMEOUT)
+    @CachePut(cacheNames = CacheConfig.EMPLOYEES_BY_ID, key = "#result.id")
     public Employee saveEmployee(Employee employee) {
-        Optional<Employee> savedEmployee = employeeRepository.findEmployeeByEmail(employee.getEmail());
-        if (savedEmployee.isPresent()){
-            throw new ResourceNotFoundException("Employee already exist with given email: "+employee.getEmail());
+        //no pre-check, the unique email index rejects duplicates in the same round trip as the insert
+        employee.setId(null);
+        employee.setVersion(null);
+        try {
+            Employee savedEmployee = employeeRepository.saveAndFlush(employee);
+            eventRepository.save(EmployeeEvent.of(EmployeeEvent.Type.CREATED, savedEmployee));
+            indexWrite(savedEmployee);
+            return savedEmployee;
+        } catch (DataIntegrityViolationException e) {
+            throw ConstraintViolations.rejected(employee.getEmail(), e);
         }
-        return employeeRepository.save(employee);
     }
 
     @Override
+    @Transactional(timeoutString = EmployeeProperties.WRITE_TIMEOUT)
+    public List<Employee> saveEmployees(List<Employee> employees) {
+        //one transaction for all of them, bounded by the write timeout. Larger loads go through the CSV import
+        int maxRows = employeeProperties.getBatch().getMaxRows();
+        if (employees.size() > maxRows) {
+            throw new PayloadTooLargeException("At most " + maxRows + " employees can be saved at once");
+        }
+        Set<String> emails = new HashSet<>();
+        for (Employee employee : employees) {
+            if (!emails.add(employee.getEmail())) {
+                throw emailTaken(employee.getEmail(), null);
+            }
+        }
+        Set<String> existing = findExistingEmails(emails);
+        if (!existing.isEmpty()) {
+            throw emailTaken(existing.iterator().next(), null);
+        }
+        EmployeeProperties.Batch batch = employeeProperties.getBatch();
+        List<Employee> savedEmployees = new ArrayList<>(employees.size());
+        try {
+            for (int from = 0; from < employees.size(); from += batch.getSize()) {
+                List<Employee> chunk = employees.subList(from, Math.min(from + batch.getSize(), employees.size()));
+                //ids are always generated, a client supplied id would turn persist into a select + merge
+                chunk.forEach(employee -> {
+                    employee.setId(null);
+                    employee.setVersion(null);
+                });
+                List<Employee> savedChunk = employeeRepository.saveAll(chunk);
+                savedEmployees.addAll(savedChunk);
+                //the events go into the same JDBC batches as their employees
+                eventRepository.saveAll(savedChunk.stream()
+                        .map(saved -> EmployeeEvent.of(EmployeeEvent.Type.CREATED, saved)).toList());
+                employeeRepository.flushAndClear();
+            }
+        } catch (DataIntegrityViolationException e) {
+            if (!ConstraintViolations.isEmailTaken(e)) {
+                throw new InvalidEmployeeException("Employee violates a database constraint", e);
+            }
+            //an email inserted concurrently after the pre-check
+            throw new ResourceAlreadyExistsException("Employee already exist with one of the given emails", e);
+        }
+        savedEmployees.forEach(this::indexWrite);
+        //what @CachePut does for saveEmployee, it also replaces missing-id entries cached for the new ids
+        Cache employeesById = cacheManager.getCache(CacheConfig.EMPLOYEES_BY_ID);
+        savedEmployees.forEach(savedEmployee -> employeesById.put(savedEmployee.getId(), savedEmployee));
+        return savedEmployees;
+    }
+
+    //not read-only on purpose: callers check emails right before inserting them, a lagging replica would miss
+    //recent inserts. Only emails the filter may have seen are queried, the unique index still catches the rest
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        List<String> candidates = new ArrayList<>(emails.size());
+        for (String email : emails) {
+            if (emailFilter.mightExist(email)) {
+                candidates.add(email);
+            }
+        }
+        emailFilter.recordSkipped(emails.size() - candidates.size());
+        int chunkSize = employeeProperties.getBatch().getInClauseSize();
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < candidates.size(); from += chunkSize) {
+            List<String> chunk = candidates.subList(from, Math.min(from + chunkSize, candidates.size()));
+            List<String> found = employeeRepository.findExistingEmails(chunk);
+            emailFilter.recordQueried(chunk.size(), found.size());
+            existing.addAll(found);
+        }
+        return existing;
+    }
+
+    //read-only transactions are served by the replica when one is configured
+    @Override
+    @Transactional(readOnly = true)
     public List<Employee> getAllEmployees() {
         return employeeRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public CursorPage<EmployeeView> getEmployeesPage(String after, Integer limit) {
+        int size = pageSize(limit);
+        Long afterId = CursorCodec.decode(after);
+        //fetch one extra row to know whether another page exists without a count query
+        List<EmployeeView> employees = employeeRepository.findViewsByIdGreaterThanOrderByIdAsc(
+                afterId == null ? 0L : afterId, PageRequest.of(0, size + 1));
+        if (employees.size() <= size) {
+            return new CursorPage<>(employees, null);
+        }
+        List<EmployeeView> content = employees.subList(0, size);
+        return new CursorPage<>(content, CursorCodec.encode(content.get(size - 1).id()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Map<String, Object>> getEmployeeFieldsPage(List<String> fields, String after, Integer limit) {
+        //the id is selected first in any case, the next cursor is built from it
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        for (String field : fields) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!EmployeeView.FIELDS.contains(name)) {
+                throw new InvalidFieldException("Unknown field: " + name + ", expected one of " + EmployeeView.FIELDS);
+            }
+            selected.add(name);
+        }
+        int size = pageSize(limit);
+        Long afterId = CursorCodec.decode(after);
+        List<Map<String, Object>> rows = employeeRepository.findFieldsByIdGreaterThan(
+                afterId == null ? 0L : afterId, List.copyOf(selected), size + 1);
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<Map<String, Object>> content = rows.subList(0, size);
+        return new CursorPage<>(content, CursorCodec.encode((Long) content.get(size - 1).get("id")));
+    }
+
+    private int pageSize(Integer limit) {
+        EmployeeProperties.Page page = employeeProperties.getPage();
+        return limit == null || limit <= 0 ? page.getDefaultSize() : Math.min(limit, page.getMaxSize());
+    }
+
+    //the stream is backed by an open cursor, so it has to be consumed inside this transaction
+    @Override
+    @Transactional(readOnly = true)
+    public long exportEmployees(Consumer<Employee> consumer) {
+        long count = 0;
+        try (Stream<Employee> employees = employeeRepository.streamAll(employeeProperties.getExport().getFetchSize())) {
+            Iterator<Employee> iterator = employees.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    //answered from the in-memory index only, no database access
+    @Override
+    public List<EmployeeSuggestion> searchEmployees(String query, Integer limit) {
+        EmployeeProperties.Search search = employeeProperties.getSearch();
+        int size = limit == null || limit <= 0 ? search.getDefaultLimit() : Math.min(limit, search.getMaxLimit());
+        return searchIndex.search(query, size);
+    }
+
+    //an empty result is cached as well, so unknown ids do not hit the database on every call.
+    //sync: concurrent misses for one id wait for a single load instead of all querying.
+    //a miss loads from the primary, a lagging replica would cache a stale row or a 404 until the next write evicts it
+    @Override
+    @Cacheable(cacheNames = CacheConfig.EMPLOYEES_BY_ID, key = "#id", sync = true)
+    @ReadFromPrimary
+    @Transactional(readOnly = true)
     public Optional <Employee> getEmployeeById(Long id) {
         return employeeRepository.findById(id);
 }
 
     @Override
+    @Transactional(readOnly = true)
+    public EmployeeLookupResult getEmployeesByIds(List<Long> ids) {
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        distinctIds.removeIf(Objects::isNull);
+        int chunkSize = employeeProperties.getBatch().getInClauseSize();
+        Map<Long, EmployeeView> found = new HashMap<>();
+        for (int from = 0; from < distinctIds.size(); from += chunkSize) {
+            employeeRepository.findViewsByIdIn(distinctIds.subList(from, Math.min(from + chunkSize, distinctIds.size())))
+                    .forEach(employee -> found.put(employee.id(), employee));
+        }
+        List<EmployeeView> employees = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : distinctIds) {
+            EmployeeView employee = found.get(id);
+            if (employee != null) {
+                employees.add(employee);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new EmployeeLookupResult(employees, missingIds);
+    }
+
+    @Override
+    @Transactional(timeoutString = EmployeeProperties.WRITE_TIMEOUT)
+    @CachePut(cacheNames = CacheConfig.EMPLOYEES_BY_ID, key = "#result.id")
     public Employee updateEmployee(Employee employee) {
-        return employeeRepository.save(employee);
+        Employee savedEmployee = employeeRepository.save(employee);
+        //flushed first so the event carries the incremented version
+        employeeRepository.flush();
+        eventRepository.save(EmployeeEvent.of(EmployeeEvent.Type.UPDATED, savedEmployee));
+        indexWrite(savedEmployee);
+        return savedEmployee;
     }
 
+    //one UPDATE statement, the entity is not loaded first, the cache entry is evicted and reloaded on the next read.
+    //An unconditional update reads back the version it wrote, the client needs it for its next If-Match
     @Override
-    public void deleteEmployee(Long id) {
-        employeeRepository.deleteById(id);
+    @Transactional(timeoutString = EmployeeProperties.WRITE_TIMEOUT)
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_BY_ID, key = "#id")
+    public Optional<Employee> updateEmployee(Long id, Employee employee, Long expectedVersion) {
+        Instant updatedAt = Employee.currentTimestamp();
+        int updated;
+        try {
+            updated = employeeRepository.updateEmployeeById(id, employee.getFirstName(), employee.getLastName(),
+                    employee.getEmail(), expectedVersion, updatedAt);
+        } catch (DataIntegrityViolationException e) {
+            throw ConstraintViolations.rejected(employee.getEmail(), e);
+        }
+        if (updated == 0) {
+            checkVersionConflict(id, expectedVersion);
+            return Optional.empty();
+        }
+        Employee updatedEmployee = Employee.builder()
+                .id(id)
+                .firstName(employee.getFirstName())
+                .lastName(employee.getLastName())
+                .email(employee.getEmail())
+                .version(expectedVersion == null ? employeeRepository.findVersionById(id) : expectedVersion + 1)
+                .updatedAt(updatedAt)
+                .active(Boolean.TRUE)
+                .build();
+        eventRepository.save(EmployeeEvent.of(EmployeeEvent.Type.UPDATED, updatedEmployee));
+        indexWrite(updatedEmployee);
+        return Optional.of(updatedEmployee);
     }
-}
\ No newline at end of file
+
+    //only differing fields are set, so dirty checking with @DynamicUpdate writes just those columns
+    //and a no-op patch ends after the plain (lock free) select
+    @Override
+    @Transactional(timeoutString = EmployeeProperties.WRITE_TIMEOUT)
+    @CachePut(cacheNames = CacheConfig.EMPLOYEES_BY_ID, key = "#id")
+    public Optional<Employee> patchEmployee(Long id, EmployeePatch patch) {
+        Optional<Employee> savedEmployee = employeeRepository.findById(id);
+        savedEmployee.ifPresent(employee -> {
+            boolean changed = false;
+            if (patch.getFirstName() != null && !patch.getFirstName().equals(employee.getFirstName())) {
+                employee.setFirstName(patch.getFirstName());
+                changed = true;
+            }
+            if (patch.getLastName() != null && !patch.getLastName().equals(employee.getLastName())) {
+                employee.setLastName(patch.getLastName());
+                changed = true;
+            }
+            if (patch.getEmail() != null && !patch.getEmail().equals(employee.getEmail())) {
+                employee.setEmail(patch.getEmail());
+                changed = true;
+            }
+            if (changed) {
+                try {
+                    employeeRepository.flush();
+                } catch (DataIntegrityViolationException e) {
+                    throw ConstraintViolations.rejected(patch.getEmail(), e);
+                } catch (ObjectOptimisticLockingFailureException e) {
+                    throw new PreconditionFailedException("Employee was modified concurrently: "+id, e);
+                }
+                eventRepository.save(EmployeeEvent.of(EmployeeEvent.Type.UPDATED, employee));
+                indexWrite(employee);
+            }
+        });
+        return savedEmployee;
+    }
+
+    @Override
+    @Transactional(timeoutString = EmployeeProperties.WRITE_TIMEOUT)
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_BY_ID, key = "#id")
+    public boolean deleteEmployee(Long id, Long expectedVersion) {
+        if (employeeRepository.deleteEmployeeById(id, expectedVersion, Employee.currentTimestamp()) > 0) {
+            eventRepository.save(EmployeeEvent.deleted(id));
+            afterCommit(() -> searchIndex.remove(id));
+            return true;
+        }
+        checkVersionConflict(id, expectedVersion);
+        return false;
+    }
+
+    //keyset walk over (updated_at, id), tombstones come back as deletions. Rows younger than the settle delay
+    //are left for the next call, an earlier timestamp committing late would otherwise fall behind the token
+    @Override
+    @Transactional(readOnly = true)
+    public EmployeeChanges getChanges(String since, Integer limit) {
+        EmployeeProperties.Sync sync = employeeProperties.getSync();
+        int size = limit == null || limit <= 0 ? sync.getDefaultLimit() : Math.min(limit, sync.getMaxLimit());
+        CursorCodec.Position position = CursorCodec.decodePosition(since);
+        if (position == null) {
+            position = new CursorCodec.Position(Instant.EPOCH, 0L);
+        }
+        Instant settledBefore = Employee.currentTimestamp().minus(sync.getSettleDelay());
+        //one extra row tells whether another page is ready
+        List<Employee> changes = employeeRepository.findChanges(position.updatedAt(), position.id(), settledBefore, size + 1);
+        boolean hasMore = changes.size() > size;
+        if (hasMore) {
+            changes = changes.subList(0, size);
+        }
+        List<Employee> upserts = new ArrayList<>(changes.size());
+        List<Long> deletions = new ArrayList<>();
+        for (Employee employee : changes) {
+            if (Boolean.TRUE.equals(employee.getActive())) {
+                upserts.add(employee);
+            } else {
+                deletions.add(employee.getId());
+            }
+        }
+        if (!changes.isEmpty()) {
+            Employee last = changes.get(changes.size() - 1);
+            position = new CursorCodec.Position(last.getUpdatedAt(), last.getId());
+        }
+        return new EmployeeChanges(upserts, deletions, CursorCodec.encode(position), hasMore);
+    }
+
+    //a conditional write that matched no row either lost the race or targets a missing id
+    private void checkVersionConflict(Long id, Long expectedVersion) {
+        if (expectedVersion != null && employeeRepository.existsById(id)) {
+            throw new PreconditionFailedException("Employee version does not match: "+id);
+        }
+    }
+
+    //the filter learns the email right away, an email that ends up rolled back only costs a query later.
+    //the search index must not show writes that are later rolled back
+    private void indexWrite(Employee employee) {
+        emailFilter.add(employee.getEmail());
+        afterCommit(() -> searchIndex.index(employee));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static ResourceAlreadyExistsException emailTaken(String email, Throwable cause) {
+        return new ResourceAlreadyExistsException("Employee already exist with given email: "+email, cause);
+    }
+}
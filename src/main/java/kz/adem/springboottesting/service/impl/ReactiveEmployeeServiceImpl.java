@@ -0,0 +1,284 @@
+package kz.adem.springboottesting.service.impl;
+
+import kz.adem.springboottesting.config.EmployeeProperties;
+import kz.adem.springboottesting.dto.CursorPage;
+import kz.adem.springboottesting.dto.EmployeeLookupResult;
+import kz.adem.springboottesting.dto.EmployeePatch;
+import kz.adem.springboottesting.dto.EmployeeView;
+import kz.adem.springboottesting.exception.InvalidEmployeeException;
+import kz.adem.springboottesting.exception.PayloadTooLargeException;
+import kz.adem.springboottesting.exception.PreconditionFailedException;
+import kz.adem.springboottesting.exception.ResourceAlreadyExistsException;
+import kz.adem.springboottesting.model.Employee;
+import kz.adem.springboottesting.model.EmployeeEvent;
+import kz.adem.springboottesting.repository.ReactiveEmployeeRepository;
+import kz.adem.springboottesting.service.ReactiveEmployeeService;
+import kz.adem.springboottesting.util.CursorCodec;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.r2dbc.core.R2dbcEntityOperations;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveEmployeeServiceImpl implements ReactiveEmployeeService {
+    private final ReactiveEmployeeRepository employeeRepository;
+    //ids are assigned before the insert, so new rows go through insert() rather than the repository's save()
+    private final R2dbcEntityOperations entityOperations;
+    private final EmployeeProperties employeeProperties;
+
+    @Override
+    @Transactional
+    public Mono<Employee> saveEmployee(Employee employee) {
+        return allocateIds(1)
+                .flatMap(id -> {
+                    employee.setId(id);
+                    employee.setVersion(0L);
+                    markInserted(employee);
+                    return entityOperations.insert(employee);
+                })
+                .onErrorMap(DataIntegrityViolationException.class, e -> ConstraintViolations.rejected(employee.getEmail(), e))
+                .flatMap(saved -> recordEvents(List.of(EmployeeEvent.of(EmployeeEvent.Type.CREATED, saved))).thenReturn(saved))
+                .timeout(writeTimeout());
+    }
+
+    @Override
+    @Transactional
+    public Flux<Employee> saveEmployees(List<Employee> employees) {
+        int maxRows = employeeProperties.getBatch().getMaxRows();
+        if (employees.size() > maxRows) {
+            return Flux.error(new PayloadTooLargeException("At most " + maxRows + " employees can be saved at once"));
+        }
+        Set<String> emails = new HashSet<>();
+        for (Employee employee : employees) {
+            if (!emails.add(employee.getEmail())) {
+                return Flux.error(emailTaken(employee.getEmail(), null));
+            }
+        }
+        if (employees.isEmpty()) {
+            return Flux.empty();
+        }
+        return chunks(new ArrayList<>(emails), employeeProperties.getBatch().getInClauseSize())
+                .concatMap(employeeRepository::findExistingEmails)
+                .next()
+                .flatMap(existing -> Mono.<Long>error(emailTaken(existing, null)))
+                .switchIfEmpty(allocateIds(employees.size()))
+                .flatMapMany(firstId -> {
+                    for (int i = 0; i < employees.size(); i++) {
+                        employees.get(i).setId(firstId + i);
+                        employees.get(i).setVersion(0L);
+                        markInserted(employees.get(i));
+                    }
+                    return Flux.fromIterable(employees).concatMap(entityOperations::insert);
+                })
+                .onErrorMap(DataIntegrityViolationException.class, e -> ConstraintViolations.isEmailTaken(e)
+                        ? new ResourceAlreadyExistsException("Employee already exist with one of the given emails", e)
+                        : new InvalidEmployeeException("Employee violates a database constraint", e))
+                .collectList()
+                .flatMapMany(saved -> recordEvents(saved.stream()
+                        .map(employee -> EmployeeEvent.of(EmployeeEvent.Type.CREATED, employee)).toList())
+                        .thenMany(Flux.fromIterable(saved)))
+                .timeout(writeTimeout());
+    }
+
+    //rows are pulled from the driver as the subscriber requests them, in batches of the export fetch size
+    @Override
+    public Flux<Employee> getAllEmployees() {
+        return employeeRepository.findAllByActiveTrueOrderByIdAsc()
+                .limitRate(employeeProperties.getExport().getFetchSize());
+    }
+
+    @Override
+    public Mono<CursorPage<Employee>> getEmployeesPage(String after, Integer limit) {
+        EmployeeProperties.Page page = employeeProperties.getPage();
+        int size = limit == null || limit <= 0 ? page.getDefaultSize() : Math.min(limit, page.getMaxSize());
+        Long afterId;
+        try {
+            afterId = CursorCodec.decode(after);
+        } catch (RuntimeException e) {
+            return Mono.error(e);
+        }
+        //fetch one extra row to know whether another page exists without a count query
+        return employeeRepository.findByIdGreaterThanAndActiveTrueOrderByIdAsc(afterId == null ? 0L : afterId, PageRequest.of(0, size + 1))
+                .collectList()
+                .map(employees -> {
+                    if (employees.size() <= size) {
+                        return new CursorPage<>(employees, null);
+                    }
+                    List<Employee> content = employees.subList(0, size);
+                    return new CursorPage<>(content, CursorCodec.encode(content.get(size - 1).getId()));
+                });
+    }
+
+    @Override
+    public Mono<Employee> getEmployeeById(Long id) {
+        return employeeRepository.findById(id);
+    }
+
+    @Override
+    public Mono<EmployeeLookupResult> getEmployeesByIds(List<Long> ids) {
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        distinctIds.removeIf(Objects::isNull);
+        return chunks(distinctIds, employeeProperties.getBatch().getInClauseSize())
+                .concatMap(employeeRepository::findAllById)
+                .collectMap(Employee::getId)
+                .map(found -> {
+                    List<EmployeeView> employees = new ArrayList<>(found.size());
+                    List<Long> missingIds = new ArrayList<>();
+                    for (Long id : distinctIds) {
+                        Employee employee = found.get(id);
+                        if (employee != null) {
+                            employees.add(EmployeeView.from(employee));
+                        } else {
+                            missingIds.add(id);
+                        }
+                    }
+                    return new EmployeeLookupResult(employees, missingIds);
+                });
+    }
+
+    //one UPDATE statement, the entity is not loaded first. An unconditional update reads back the version it wrote
+    @Override
+    @Transactional
+    public Mono<Employee> updateEmployee(Long id, Employee employee, Long expectedVersion) {
+        Instant updatedAt = Employee.currentTimestamp();
+        return employeeRepository.updateEmployeeById(id, employee.getFirstName(), employee.getLastName(),
+                        employee.getEmail(), expectedVersion, updatedAt)
+                .onErrorMap(DataIntegrityViolationException.class, e -> ConstraintViolations.rejected(employee.getEmail(), e))
+                .flatMap(updated -> updated == 0
+                        ? checkVersionConflict(id, expectedVersion).then(Mono.<Long>empty())
+                        : expectedVersion == null ? employeeRepository.findVersionById(id) : Mono.just(expectedVersion + 1))
+                .map(version -> Employee.builder()
+                        .id(id)
+                        .firstName(employee.getFirstName())
+                        .lastName(employee.getLastName())
+                        .email(employee.getEmail())
+                        .version(version)
+                        .updatedAt(updatedAt)
+                        .active(Boolean.TRUE)
+                        .build())
+                .flatMap(updated -> recordEvents(List.of(EmployeeEvent.of(EmployeeEvent.Type.UPDATED, updated))).thenReturn(updated))
+                .timeout(writeTimeout());
+    }
+
+    //only writes when a field actually differs, the UPDATE is conditional on the version that was read
+    @Override
+    @Transactional
+    public Mono<Employee> patchEmployee(Long id, EmployeePatch patch) {
+        return employeeRepository.findById(id)
+                .flatMap(employee -> {
+                    boolean changed = false;
+                    if (patch.getFirstName() != null && !patch.getFirstName().equals(employee.getFirstName())) {
+                        employee.setFirstName(patch.getFirstName());
+                        changed = true;
+                    }
+                    if (patch.getLastName() != null && !patch.getLastName().equals(employee.getLastName())) {
+                        employee.setLastName(patch.getLastName());
+                        changed = true;
+                    }
+                    if (patch.getEmail() != null && !patch.getEmail().equals(employee.getEmail())) {
+                        employee.setEmail(patch.getEmail());
+                        changed = true;
+                    }
+                    if (!changed) {
+                        return Mono.just(employee);
+                    }
+                    employee.setUpdatedAt(Employee.currentTimestamp());
+                    return employeeRepository.updateEmployeeById(id, employee.getFirstName(), employee.getLastName(),
+                                    employee.getEmail(), employee.getVersion(), employee.getUpdatedAt())
+                            .onErrorMap(DataIntegrityViolationException.class, e -> ConstraintViolations.rejected(patch.getEmail(), e))
+                            .flatMap(updated -> {
+                                if (updated == 0) {
+                                    return Mono.error(new PreconditionFailedException("Employee was modified concurrently: "+id));
+                                }
+                                employee.setVersion(employee.getVersion() + 1);
+                                return recordEvents(List.of(EmployeeEvent.of(EmployeeEvent.Type.UPDATED, employee)))
+                                        .thenReturn(employee);
+                            });
+                })
+                .timeout(writeTimeout());
+    }
+
+    @Override
+    @Transactional
+    public Mono<Boolean> deleteEmployee(Long id, Long expectedVersion) {
+        return employeeRepository.deleteEmployeeById(id, expectedVersion, Employee.currentTimestamp())
+                .flatMap(deleted -> deleted > 0
+                        ? recordEvents(List.of(EmployeeEvent.deleted(id))).thenReturn(true)
+                        : checkVersionConflict(id, expectedVersion).thenReturn(false))
+                .timeout(writeTimeout());
+    }
+
+    //a conditional write that matched no row either lost the race or targets a missing id
+    private Mono<Void> checkVersionConflict(Long id, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return Mono.empty();
+        }
+        return employeeRepository.existsById(id)
+                .flatMap(exists -> exists
+                        ? Mono.error(new PreconditionFailedException("Employee version does not match: "+id))
+                        : Mono.empty());
+    }
+
+    //Claims count consecutive ids from employees_seq and returns the first one. Hibernate's pooled
+    //optimizer owns ids (value - allocationSize, value] for every sequence value it reads, so advancing
+    //the sequence by enough whole blocks keeps both modes from handing out the same id.
+    private Mono<Long> allocateIds(int count) {
+        long blocks = 1 + (count - 1 + Employee.ID_ALLOCATION_SIZE - 1) / Employee.ID_ALLOCATION_SIZE;
+        long increment = blocks * Employee.ID_ALLOCATION_SIZE;
+        return employeeRepository.advanceIdSequence(increment)
+                .then(employeeRepository.findIdSequenceValue())
+                .map(value -> value - increment);
+    }
+
+    //Outbox rows for the change feed, in the transaction of the change they describe. Event ids come from
+    //employee_events_seq one per event like on the servlet side, which reads the value before incrementing it
+    private Mono<Void> recordEvents(List<EmployeeEvent> events) {
+        return employeeRepository.advanceEventIdSequence(events.size())
+                .then(employeeRepository.findEventIdSequenceValue())
+                .flatMapMany(value -> {
+                    long firstId = value - events.size();
+                    for (int i = 0; i < events.size(); i++) {
+                        events.get(i).setId(firstId + i);
+                    }
+                    return Flux.fromIterable(events).concatMap(entityOperations::insert);
+                })
+                .then();
+    }
+
+    //the r2dbc transaction manager does not enforce @Transactional timeouts, a timed out write rolls back instead.
+    //Rows are stamped inside the transaction, the delta sync relies on it committing within this bound
+    private Duration writeTimeout() {
+        return Duration.ofSeconds(employeeProperties.getWriteTimeoutSeconds());
+    }
+
+    //what @PrePersist does for the JPA inserts
+    private static void markInserted(Employee employee) {
+        employee.setActive(Boolean.TRUE);
+        employee.setUpdatedAt(Employee.currentTimestamp());
+    }
+
+    private static <T> Flux<List<T>> chunks(List<T> values, int chunkSize) {
+        return Flux.range(0, (values.size() + chunkSize - 1) / chunkSize)
+                .map(chunk -> values.subList(chunk * chunkSize, Math.min((chunk + 1) * chunkSize, values.size())));
+    }
+
+    private static ResourceAlreadyExistsException emailTaken(String email, Throwable cause) {
+        return new ResourceAlreadyExistsException("Employee already exist with given email: "+email, cause);
+    }
+}
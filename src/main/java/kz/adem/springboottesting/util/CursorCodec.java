@@ -0,0 +1,57 @@
+package kz.adem.springboottesting.util;
+
+import kz.adem.springboottesting.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+//encodes keyset positions into opaque url-safe cursors
+public final class CursorCodec {
+    private CursorCodec() {
+    }
+
+    public static String encode(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    //delta sync tokens carry an (updatedAt, id) position, written as epoch micros:id
+    public static String encode(Position position) {
+        String value = ChronoUnit.MICROS.between(Instant.EPOCH, position.updatedAt()) + ":" + position.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Position decodePosition(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Missing id");
+            }
+            Instant updatedAt = Instant.EPOCH.plus(Long.parseLong(value.substring(0, separator)), ChronoUnit.MICROS);
+            return new Position(updatedAt, Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | ArithmeticException | DateTimeException e) {
+            throw new InvalidCursorException("Invalid token: " + token, e);
+        }
+    }
+
+    public record Position(Instant updatedAt, long id) {
+    }
+}
@@ -0,0 +1,196 @@
+package kz.adem.springboottesting.writebehind;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import kz.adem.springboottesting.config.EmployeeProperties;
+import kz.adem.springboottesting.dto.WriteStatus;
+import kz.adem.springboottesting.exception.InvalidEmployeeException;
+import kz.adem.springboottesting.exception.ResourceAlreadyExistsException;
+import kz.adem.springboottesting.exception.ServiceUnavailableException;
+import kz.adem.springboottesting.exception.TooManyRequestsException;
+import kz.adem.springboottesting.model.Employee;
+import kz.adem.springboottesting.service.EmployeeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+//Opt-in write-behind for POST /api/employees: creates are validated and queued, one background thread
+//saves them in multi-row batches, so a burst uses one connection instead of one per request. A full
+//queue answers 429. On shutdown new creates are refused and the queue is drained before the pool closes.
+@Slf4j
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "employees.write-behind.enabled", havingValue = "true")
+public class EmployeeWriteBehindQueue implements SmartLifecycle {
+    //Higher phases stop first. The web server stops in Integer.MAX_VALUE - 2048, after graceful shutdown let
+    //in-flight requests finish, so by the time this phase stops no request can enqueue anymore
+    static final int PHASE = Integer.MAX_VALUE - 4096;
+    private static final long POLL_MILLIS = 100;
+
+    private final EmployeeService employeeService;
+    private final EmployeeProperties.WriteBehind properties;
+    private final BlockingQueue<Pending> queue;
+    private final Cache<String, WriteStatus> statuses;
+    //guards accepting, so an enqueue either lands in the queue before stop or is refused
+    private final Object acceptLock = new Object();
+    private volatile boolean accepting;
+    private volatile boolean running;
+    private volatile Runnable stopCallback;
+    private Thread flusher;
+
+    public EmployeeWriteBehindQueue(EmployeeService employeeService, EmployeeProperties employeeProperties) {
+        this.employeeService = employeeService;
+        this.properties = employeeProperties.getWriteBehind();
+        employeeProperties.checkBatchRows(properties.getBatchSize(), "employees.write-behind.batch-size");
+        this.queue = new ArrayBlockingQueue<>(properties.getCapacity());
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxTrackedWrites())
+                .expireAfterWrite(properties.getStatusTtl())
+                .build();
+    }
+
+    public WriteStatus enqueue(Employee employee) {
+        validate(employee);
+        WriteStatus status = new WriteStatus(UUID.randomUUID().toString(), WriteStatus.State.PENDING, null, null);
+        synchronized (acceptLock) {
+            if (!accepting) {
+                throw new ServiceUnavailableException("Employee writes are not accepted while shutting down");
+            }
+            statuses.put(status.getTrackingId(), status);
+            if (!queue.offer(new Pending(status.getTrackingId(), employee))) {
+                statuses.invalidate(status.getTrackingId());
+                throw new TooManyRequestsException("Employee write queue is full, retry later");
+            }
+        }
+        return status;
+    }
+
+    public Optional<WriteStatus> getStatus(String trackingId) {
+        return Optional.ofNullable(statuses.getIfPresent(trackingId));
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        accepting = true;
+        running = true;
+        flusher = new Thread(this::flushLoop, "employee-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    //the flusher only exits once running is false and the queue is empty, nothing is offered after that
+    @Override
+    public void stop(Runnable callback) {
+        synchronized (acceptLock) {
+            accepting = false;
+        }
+        stopCallback = callback;
+        running = false;
+        if (flusher == null) {
+            callback.run();
+        }
+    }
+
+    @Override
+    public void stop() {
+        stop(() -> { });
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    //keeps going after stop until the queue is empty
+    private void flushLoop() {
+        List<Pending> batch = new ArrayList<>(properties.getBatchSize());
+        try {
+            while (running || !queue.isEmpty()) {
+                Pending first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+                flush(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Write-behind flusher interrupted with {} queued employees", queue.size());
+        } finally {
+            Runnable callback = stopCallback;
+            if (callback != null) {
+                callback.run();
+            }
+        }
+    }
+
+    void flush(List<Pending> batch) {
+        List<Employee> employees = new ArrayList<>(batch.size());
+        batch.forEach(pending -> employees.add(pending.employee()));
+        try {
+            List<Employee> saved = employeeService.saveEmployees(employees);
+            for (int i = 0; i < batch.size(); i++) {
+                created(batch.get(i), saved.get(i));
+            }
+        } catch (ResourceAlreadyExistsException e) {
+            //one taken email rolls back the whole batch, retry one by one so only that create fails
+            batch.forEach(this::flushOne);
+        } catch (RuntimeException e) {
+            log.error("Write-behind batch of {} employees failed", batch.size(), e);
+            batch.forEach(pending -> failed(pending, e));
+        }
+    }
+
+    private void flushOne(Pending pending) {
+        try {
+            created(pending, employeeService.saveEmployee(pending.employee()));
+        } catch (RuntimeException e) {
+            failed(pending, e);
+        }
+    }
+
+    private void created(Pending pending, Employee employee) {
+        statuses.put(pending.trackingId(),
+                new WriteStatus(pending.trackingId(), WriteStatus.State.CREATED, employee.getId(), null));
+    }
+
+    private void failed(Pending pending, RuntimeException e) {
+        statuses.put(pending.trackingId(),
+                new WriteStatus(pending.trackingId(), WriteStatus.State.FAILED, null, e.getMessage()));
+    }
+
+    //the client only gets a 202, so everything the insert would reject up front is checked here
+    private static void validate(Employee employee) {
+        if (isBlank(employee.getFirstName()) || isBlank(employee.getLastName()) || isBlank(employee.getEmail())) {
+            throw new InvalidEmployeeException("firstName, lastName and email are required");
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    record Pending(String trackingId, Employee employee) {
+    }
+}
@@ -0,0 +1,47 @@
+-- Schema used by the reactive profile, matching what hibernate generates for Employee on MySQL.
+-- The servlet profile keeps creating it through spring.jpa.hibernate.ddl-auto.
+create table if not exists employees (
+    id bigint not null,
+    email varchar(255) not null,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    version bigint not null,
+    updated_at datetime(6) default current_timestamp(6) not null,
+    active bit default true,
+    primary key (id),
+    constraint uk_employees_email unique (email, active),
+    index idx_employees_updated_at_id (updated_at, id)
+);
+
+create table if not exists employees_seq (
+    next_val bigint
+);
+
+insert into employees_seq (next_val) select 1 from dual where not exists (select * from employees_seq);
+
+-- A table filled before the sequence existed (or under IDENTITY ids) would otherwise get its ids handed out
+-- again. Hibernate owns (next_val - 50, next_val] for every value it reads, so next_val has to be at least
+-- max(id) + 50, the allocation size of Employee. Only ever moves forward.
+update employees_seq set next_val = (select max(id) + 50 from employees)
+where next_val < (select coalesce(max(id) + 50, 1) from employees);
+
+-- Outbox of the change feed, matching what hibernate generates for EmployeeEvent. Event ids are handed out
+-- one at a time from employee_events_seq, the same table the servlet profile uses.
+create table if not exists employee_events (
+    id bigint not null,
+    type varchar(16) not null,
+    employee_id bigint not null,
+    first_name varchar(255),
+    last_name varchar(255),
+    email varchar(255),
+    version bigint,
+    created_at datetime(6) not null,
+    primary key (id),
+    index idx_employee_events_created_at (created_at)
+);
+
+create table if not exists employee_events_seq (
+    next_val bigint
+);
+
+insert into employee_events_seq (next_val) select 1 from dual where not exists (select * from employee_events_seq);
@@ -0,0 +1,79 @@
+package kz.adem.springboottesting.concurrency;
+
+import kz.adem.springboottesting.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class DatabaseConcurrencyGateTests {
+    private DataSource dataSource;
+    private Connection connection;
+    private DatabaseConcurrencyGate gate;
+
+    @BeforeEach
+    public void setup() throws SQLException{
+        dataSource = Mockito.mock(DataSource.class);
+        connection = Mockito.mock(Connection.class);
+        given(dataSource.getConnection()).willReturn(connection);
+        gate = new DatabaseConcurrencyGate(dataSource, 1, Duration.ofMillis(100));
+    }
+
+    @Test
+    @DisplayName("Junit test for connection request waiting longer than the acquire timeout")
+    public void givenAllPermitsTaken_whenGetConnection_thenThrowsServiceUnavailable() throws Exception{
+        //given
+        Connection borrowed = gate.getConnection();
+
+        //when
+        assertThrows(ServiceUnavailableException.class, gate::getConnection);
+
+        //then
+        borrowed.close();
+        assertThat(gate.getAvailablePermits()).isEqualTo(1);
+        try (Connection next = gate.getConnection()) {
+            assertThat(gate.getAvailablePermits()).isZero();
+        }
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    @DisplayName("Junit test for permit released when the pool fails to hand out a connection")
+    public void givenFailingPool_whenGetConnection_thenPermitReleased() throws SQLException{
+        //given
+        given(dataSource.getConnection()).willThrow(new SQLTransientConnectionException("pool exhausted"));
+
+        //when
+        assertThrows(SQLTransientConnectionException.class, gate::getConnection);
+
+        //then
+        assertThat(gate.getAvailablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Junit test for connection closed twice")
+    public void givenClosedConnection_whenCloseAgain_thenPermitReleasedOnce() throws SQLException{
+        //given
+        Connection borrowed = gate.getConnection();
+        borrowed.close();
+
+        //when
+        borrowed.close();
+
+        //then
+        assertThat(gate.getAvailablePermits()).isEqualTo(1);
+        verify(connection).close();
+    }
+}
@@ -0,0 +1,68 @@
+package kz.adem.springboottesting.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.ConfigurationPropertiesAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReplicaDataSourceConfigTests {
+    //nothing listens on port 1. The pool starts without connections, like a replica that went down after startup
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(ConfigurationPropertiesAutoConfiguration.class))
+            .withUserConfiguration(PropertiesConfig.class, ReplicaDataSourceConfig.class)
+            .withPropertyValues(
+                    "spring.datasource.url=jdbc:h2:mem:replica-down;DB_CLOSE_DELAY=-1",
+                    "spring.datasource.username=sa",
+                    "spring.datasource.replica.url=jdbc:h2:tcp://localhost:1/mem:replica-down",
+                    "spring.datasource.replica.username=sa",
+                    "spring.datasource.replica.hikari.initialization-fail-timeout=-1");
+
+    @AfterEach
+    public void tearDown(){
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    @DisplayName("Junit test for read-only connection while the replica is down")
+    public void givenReplicaDown_whenGetReadOnlyConnection_thenFallBackToPrimaryQuickly(){
+        contextRunner.run(context -> {
+            //given
+            DataSource routing = context.getBean("dataSource", LazyConnectionDataSourceProxy.class).getTargetDataSource();
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+            //when
+            long started = System.nanoTime();
+            try (Connection first = routing.getConnection()) {
+                long firstMillis = (System.nanoTime() - started) / 1_000_000;
+                started = System.nanoTime();
+                try (Connection second = routing.getConnection()) {
+                    long secondMillis = (System.nanoTime() - started) / 1_000_000;
+
+                    //then
+                    //the replica pool gives up after employees.replica.connection-timeout, not hikari's 30s
+                    assertThat(first.getMetaData().getURL()).isEqualTo("jdbc:h2:mem:replica-down");
+                    assertThat(firstMillis).isLessThan(5_000);
+                    //the replica is skipped for retry-after instead of being waited for again
+                    assertThat(second.getMetaData().getURL()).isEqualTo("jdbc:h2:mem:replica-down");
+                    assertThat(secondMillis).isLessThan(500);
+                }
+            }
+        });
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableConfigurationProperties(EmployeeProperties.class)
+    static class PropertiesConfig {
+    }
+}
@@ -2,8 +2,20 @@ package kz.adem.springboottesting.controller;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import kz.adem.springboottesting.dto.CursorPage;
+import kz.adem.springboottesting.dto.EmployeeLookupResult;
+import kz.adem.springboottesting.dto.EmployeeView;
+import kz.adem.springboottesting.dto.EmployeePatch;
+import kz.adem.springboottesting.dto.EmployeeSuggestion;
+import kz.adem.springboottesting.dto.ImportStatus;
+import kz.adem.springboottesting.exception.PayloadTooLargeException;
+import kz.adem.springboottesting.exception.PreconditionFailedException;
+import kz.adem.springboottesting.importer.EmployeeCsvImporter;
+import kz.adem.springboottesting.exception.ResourceAlreadyExistsException;
 import kz.adem.springboottesting.model.Employee;
+import kz.adem.springboottesting.outbox.EmployeeChangeFeed;
 import kz.adem.springboottesting.service.EmployeeService;
+import org.assertj.core.api.Assertions;
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,23 +27,34 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @WebMvcTest
+@Import(IdempotencyStore.class)
 public class EmployeeControllerTests {
     @Autowired
     private MockMvc mockMvc;
     @MockBean
     private EmployeeService employeeService;
+    @MockBean
+    private EmployeeCsvImporter employeeCsvImporter;
+    @MockBean
+    private EmployeeChangeFeed employeeChangeFeed;
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -62,22 +85,164 @@ public class EmployeeControllerTests {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.email",CoreMatchers.is(employee.getEmail())));
 }
 
+    @Test
+    @DisplayName("Junit test for create employee REST API with taken email")
+    public void givenExistingEmail_whenCreateEmployee_thenReturn409() throws Exception{
+        //given
+        Employee  employee = Employee.builder()
+                .firstName("Adem")
+                .lastName("Shanghai")
+                .email("adem@gmail.com")
+                .build();
+        BDDMockito.given(employeeService.saveEmployee(ArgumentMatchers.any(Employee.class)))
+                .willThrow(new ResourceAlreadyExistsException("Employee already exist with given email: adem@gmail.com"));
+        //when
+        ResultActions response =  mockMvc.perform(MockMvcRequestBuilders.post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(employee)));
+        //then
+        response.andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isConflict());
+    }
+
+    @Test
+    @DisplayName("Junit test for batch create employees REST API")
+    public void givenListOfEmployees_whenCreateEmployees_thenReturnSavedEmployees() throws Exception{
+        //given
+        List<Employee> listOfEmployees = new ArrayList<>();
+        listOfEmployees.add(Employee.builder().firstName("Adem").lastName("Shanghai").email("adem@gmail.com").build());
+        listOfEmployees.add(Employee.builder().firstName("Tony").lastName("Stark").email("tony@gmail.com").build());
+        BDDMockito.given(employeeService.saveEmployees(ArgumentMatchers.anyList()))
+                .willAnswer((invocation)->invocation.getArgument(0));
+        //when
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(listOfEmployees)));
+        //then
+        response.andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.size()",CoreMatchers.is(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].email",CoreMatchers.is("tony@gmail.com")));
+    }
+
+    @Test
+    @DisplayName("Junit test for batch create employees REST API with too many employees")
+    public void givenTooManyEmployees_whenCreateEmployees_thenReturn413() throws Exception{
+        //given
+        List<Employee> listOfEmployees = List.of(
+                Employee.builder().firstName("Adem").lastName("Shanghai").email("adem@gmail.com").build());
+        BDDMockito.given(employeeService.saveEmployees(ArgumentMatchers.anyList()))
+                .willThrow(new PayloadTooLargeException("At most 0 employees can be saved at once"));
+        //when
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(listOfEmployees)));
+        //then
+        response.andExpect(MockMvcResultMatchers.status().isPayloadTooLarge());
+    }
+
         @Test
         @DisplayName("Junit test for get All employees REST API")
         public void givenListOfEmployees_whenGetAllEmployees_thenReturnListOfEmployees() throws Exception {
         //given
-            List<Employee> listOfEmployees = new ArrayList<>();
-            listOfEmployees.add(Employee.builder().firstName("Adem").lastName("Shanghai").email("adem@gmail.com").build());
-            listOfEmployees.add(Employee.builder().firstName("Tony").lastName("Stark").email("tony@gmail.com").build());
-            BDDMockito.given(employeeService.getAllEmployees()).willReturn(listOfEmployees);
+            List<EmployeeView> listOfEmployees = new ArrayList<>();
+            listOfEmployees.add(new EmployeeView(1L, "Adem", "Shanghai", "adem@gmail.com", 0L, null));
+            listOfEmployees.add(new EmployeeView(2L, "Tony", "Stark", "tony@gmail.com", 0L, null));
+            BDDMockito.given(employeeService.getEmployeesPage(null, null)).willReturn(new CursorPage<>(listOfEmployees, null));
         //when
             ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees"));
         //then
             response.andExpect(MockMvcResultMatchers.status().isOk())
                     .andDo(MockMvcResultHandlers.print())
-                    .andExpect(MockMvcResultMatchers.jsonPath("$.size()",CoreMatchers.is(2)));
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.content.size()",CoreMatchers.is(2)));
         }
 
+    @Test
+    @DisplayName("Junit test for get employees page with cursor REST API")
+    public void givenCursorAndLimit_whenGetAllEmployees_thenReturnPageWithNextCursor() throws Exception {
+        //given
+        List<EmployeeView> listOfEmployees = List.of(new EmployeeView(3L, "Tony", "Stark", "tony@gmail.com", 0L, null));
+        BDDMockito.given(employeeService.getEmployeesPage("Mg", 1)).willReturn(new CursorPage<>(listOfEmployees, "Mw"));
+        //when
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees")
+                .param("after", "Mg")
+                .param("limit", "1"));
+        //then
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content.size()",CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor",CoreMatchers.is("Mw")));
+    }
+
+    @Test
+    @DisplayName("Junit test for streaming export REST API")
+    public void givenEmployees_whenExportEmployees_thenStreamNdjson() throws Exception {
+        //given
+        Employee employee1 = Employee.builder().id(1L).firstName("Adem").lastName("Shanghai").email("adem@gmail.com").build();
+        Employee employee2 = Employee.builder().id(2L).firstName("Tony").lastName("Stark").email("tony@gmail.com").build();
+        BDDMockito.given(employeeService.exportEmployees(ArgumentMatchers.any())).willAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            consumer.accept(employee1);
+            consumer.accept(employee2);
+            return 2L;
+        });
+        //when
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/export"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result));
+        //then
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(MockMvcResultMatchers.content().string(
+                        objectMapper.writeValueAsString(employee1) + "\n" + objectMapper.writeValueAsString(employee2) + "\n"));
+    }
+
+    @Test
+    @DisplayName("Junit test for the async request timeout of the streaming export REST API")
+    public void givenExportTimeout_whenExportEmployees_thenAsyncRequestUsesIt() throws Exception {
+        //given
+        BDDMockito.given(employeeService.exportEmployees(ArgumentMatchers.any())).willReturn(0L);
+        //when
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/export"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        //then
+        Assertions.assertThat(result.getRequest().getAsyncContext().getTimeout())
+                .isEqualTo(Duration.ofMinutes(30).toMillis());
+    }
+
+    @Test
+    @DisplayName("Junit test for get employees by ids REST API")
+    public void givenIds_whenGetEmployeesByIds_thenReturnEmployeesAndMissingIds() throws Exception{
+        //given
+        EmployeeView employee = new EmployeeView(2L, "Tony", "Stark", "tony@gmail.com", 0L, null);
+        BDDMockito.given(employeeService.getEmployeesByIds(List.of(2L,5L)))
+                .willReturn(new EmployeeLookupResult(List.of(employee), List.of(5L)));
+        //when
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees").param("ids", "2,5"));
+        //then
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.employees.size()",CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.employees[0].id",CoreMatchers.is(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.missingIds[0]",CoreMatchers.is(5)));
+    }
+
+    @Test
+    @DisplayName("Junit test for get employees with selected fields REST API")
+    public void givenFields_whenGetAllEmployees_thenReturnOnlyThoseFields() throws Exception{
+        //given
+        BDDMockito.given(employeeService.getEmployeeFieldsPage(List.of("email"), null, null))
+                .willReturn(new CursorPage<>(List.of(Map.of("id", 2, "email", "tony@gmail.com")), null));
+        //when
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees").param("fields", "email"));
+        //then
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].email",CoreMatchers.is("tony@gmail.com")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].firstName").doesNotExist());
+    }
+
         @Test
         @DisplayName("Junit test for get employee by id REST API")
         public void givenId_whenGetEmpById_thenReturnEmployeeObject() throws Exception{
@@ -100,6 +265,29 @@ public class EmployeeControllerTests {
                     .andExpect(MockMvcResultMatchers.jsonPath("$.email",CoreMatchers.is(employee.getEmail())));
         }
 
+    @Test
+    @DisplayName("Junit test for get employee by id REST API with matching If-None-Match")
+    public void givenCurrentETag_whenGetEmpById_thenReturn304() throws Exception{
+        //given
+        Employee  employee = Employee.builder()
+                .id(1L)
+                .firstName("Adem")
+                .lastName("Shanghai")
+                .email("adem@gmail.com")
+                .version(3L)
+                .build();
+        BDDMockito.given(employeeService.getEmployeeById(1L)).willReturn(Optional.of(employee));
+
+        //when
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}",employee.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\""));
+        //then
+        response.andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(MockMvcResultMatchers.content().string(""));
+    }
+
     @Test
     @DisplayName("Junit test for get employee by id in negative scenario REST API")
     public void givenInvalidId_whenGetEmpById_thenReturnEmpty() throws Exception{
@@ -136,9 +324,8 @@ public class EmployeeControllerTests {
                 .lastName("Updated")
                 .email("updated@gmail.com")
                 .build();
-        BDDMockito.given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(savedEmployee));
-        BDDMockito.given(employeeService.updateEmployee(ArgumentMatchers.any(Employee.class))).willAnswer((invocation)->
-                invocation.getArgument(0));
+        BDDMockito.given(employeeService.updateEmployee(ArgumentMatchers.eq(employeeId),ArgumentMatchers.any(Employee.class),ArgumentMatchers.isNull()))
+                .willAnswer((invocation)-> Optional.of(invocation.getArgument(1)));
     //when
         ResultActions response = mockMvc.perform(MockMvcRequestBuilders.put("/api/employees/{id}", employeeId)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -168,9 +355,8 @@ public class EmployeeControllerTests {
                 .lastName("Updated")
                 .email("updated@gmail.com")
                 .build();
-        BDDMockito.given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.empty());
-//        BDDMockito.given(employeeService.updateEmployee(ArgumentMatchers.any(Employee.class))).willAnswer((invocation)->
-//                invocation.getArgument(0));
+        BDDMockito.given(employeeService.updateEmployee(ArgumentMatchers.eq(employeeId),ArgumentMatchers.any(Employee.class),ArgumentMatchers.isNull()))
+                .willReturn(Optional.empty());
         //when
         ResultActions response = mockMvc.perform(MockMvcRequestBuilders.put("/api/employees/{id}", employeeId)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -181,12 +367,88 @@ public class EmployeeControllerTests {
                 .andExpect(MockMvcResultMatchers.status().isNotFound());
     }
 
+    @Test
+    @DisplayName("Junit test for update employees REST API with If-Match")
+    public void givenIfMatch_whenUpdateEmployee_thenReturnNewETag() throws Exception {
+        //given
+        Long employeeId = 1L;
+        Employee  updatedEmployee = Employee.builder()
+                .firstName("Updated")
+                .lastName("Updated")
+                .email("updated@gmail.com")
+                .build();
+        BDDMockito.given(employeeService.updateEmployee(ArgumentMatchers.eq(employeeId),ArgumentMatchers.any(Employee.class),ArgumentMatchers.eq(3L)))
+                .willAnswer((invocation)-> {
+                    Employee employee = invocation.getArgument(1);
+                    employee.setVersion(4L);
+                    return Optional.of(employee);
+                });
+        //when
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.put("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedEmployee)));
+
+        //then
+        response.andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    @DisplayName("Junit test for update employees REST API with stale If-Match")
+    public void givenStaleIfMatch_whenUpdateEmployee_thenReturn412() throws Exception {
+        //given
+        Long employeeId = 1L;
+        Employee  updatedEmployee = Employee.builder()
+                .firstName("Updated")
+                .lastName("Updated")
+                .email("updated@gmail.com")
+                .build();
+        BDDMockito.given(employeeService.updateEmployee(ArgumentMatchers.eq(employeeId),ArgumentMatchers.any(Employee.class),ArgumentMatchers.eq(2L)))
+                .willThrow(new PreconditionFailedException("Employee version does not match: 1"));
+        //when
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.put("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_MATCH, "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedEmployee)));
+
+        //then
+        response.andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+    }
+
+    @Test
+    @DisplayName("Junit test for patch employee REST API")
+    public void givenSparseBody_whenPatchEmployee_thenReturnPatchedEmployee() throws Exception {
+        //given
+        Long employeeId = 1L;
+        Employee  patchedEmployee = Employee.builder()
+                .id(1L)
+                .firstName("Adem")
+                .lastName("Stark")
+                .email("adem@gmail.com")
+                .build();
+        BDDMockito.given(employeeService.patchEmployee(employeeId, EmployeePatch.builder().lastName("Stark").build()))
+                .willReturn(Optional.of(patchedEmployee));
+        //when
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.patch("/api/employees/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"lastName\":\"Stark\"}"));
+
+        //then
+        response.andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.firstName",CoreMatchers.is("Adem")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.lastName",CoreMatchers.is("Stark")));
+    }
+
     @Test
     @DisplayName("Junit test for delete employee REST API")
     public void givenEmployeeId_whenDeleteEmployee_thenReturn200() throws Exception{
     //given
         Long empId = 1L;
-        BDDMockito.willDoNothing().given(employeeService).deleteEmployee(empId);
+        BDDMockito.given(employeeService.deleteEmployee(empId, null)).willReturn(true);
     //when
         ResultActions response = mockMvc.perform(MockMvcRequestBuilders.delete("/api/employees/{id}",empId));
 
@@ -195,5 +457,110 @@ public class EmployeeControllerTests {
                 .andDo(MockMvcResultHandlers.print());
     }
 
+    @Test
+    @DisplayName("Junit test for delete employee REST API - negative scenario")
+    public void givenInvalidEmployeeId_whenDeleteEmployee_thenReturn404() throws Exception{
+        //given
+        Long empId = 1L;
+        BDDMockito.given(employeeService.deleteEmployee(empId, null)).willReturn(false);
+        //when
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.delete("/api/employees/{id}",empId));
+
+        //then
+        response.andExpect(MockMvcResultMatchers.status().isNotFound())
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    @Test
+    @DisplayName("Junit test for search employees REST API")
+    public void givenPrefix_whenSearchEmployees_thenReturnSuggestions() throws Exception{
+        //given
+        BDDMockito.given(employeeService.searchEmployees("ad", 5))
+                .willReturn(List.of(new EmployeeSuggestion(1L, "Adem", "Shanghai", "adem@gmail.com", 0L)));
+        //when
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/search")
+                .param("q", "ad")
+                .param("limit", "5"));
+        //then
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].email", CoreMatchers.is("adem@gmail.com")));
+    }
+
+    @Test
+    @DisplayName("Junit test for create employee REST API retried with an Idempotency-Key")
+    public void givenIdempotencyKey_whenCreateEmployeeRetried_thenReplayFirstResponse() throws Exception{
+        //given
+        Employee employee = Employee.builder().firstName("Adem").lastName("Shanghai").email("adem@gmail.com").build();
+        BDDMockito.given(employeeService.saveEmployee(ArgumentMatchers.any(Employee.class)))
+                .willAnswer((invocation)->{
+                    Employee saved = invocation.getArgument(0);
+                    saved.setId(1L);
+                    return saved;
+                });
+        //when
+        for (int attempt = 0; attempt < 2; attempt++) {
+            ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees")
+                    .header(IdempotencyStore.HEADER, "create-adem")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsBytes(employee)));
+        //then
+            response.andExpect(MockMvcResultMatchers.status().isCreated())
+                    .andExpect(MockMvcResultMatchers.header().string(IdempotencyStore.REPLAYED_HEADER, String.valueOf(attempt == 1)))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.id", CoreMatchers.is(1)));
+        }
+        Mockito.verify(employeeService, Mockito.times(1)).saveEmployee(ArgumentMatchers.any(Employee.class));
+    }
+
+    @Test
+    @DisplayName("Junit test for create employee REST API reusing an Idempotency-Key for another body")
+    public void givenIdempotencyKeyReusedWithOtherBody_whenCreateEmployee_thenReturn422() throws Exception{
+        //given
+        Employee employee = Employee.builder().firstName("Adem").lastName("Shanghai").email("adem@gmail.com").build();
+        BDDMockito.given(employeeService.saveEmployee(ArgumentMatchers.any(Employee.class)))
+                .willAnswer((invocation)->invocation.getArgument(0));
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/employees")
+                .header(IdempotencyStore.HEADER, "create-other")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(employee)));
+        employee.setEmail("tony@gmail.com");
+        //when
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees")
+                .header(IdempotencyStore.HEADER, "create-other")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(employee)));
+        //then
+        response.andExpect(MockMvcResultMatchers.status().isUnprocessableEntity());
+        Mockito.verify(employeeService, Mockito.times(1)).saveEmployee(ArgumentMatchers.any(Employee.class));
+    }
+
+    @Test
+    @DisplayName("Junit test for start CSV import REST API")
+    public void givenImportFile_whenStartImport_thenReturn202WithStatus() throws Exception{
+        //given
+        BDDMockito.given(employeeCsvImporter.start("hr.csv"))
+                .willReturn(new ImportStatus("hr.csv", ImportStatus.State.RUNNING, 1024, 0, 0, 0, null));
+        //when
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees/imports")
+                .param("file", "hr.csv"));
+        //then
+        response.andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.LOCATION, "/api/employees/imports/hr.csv"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.state", CoreMatchers.is("RUNNING")));
+    }
 
-    }
\ No newline at end of file
+    @Test
+    @DisplayName("Junit test for start CSV import REST API with a file name that needs encoding")
+    public void givenImportFileWithSpace_whenStartImport_thenReturnEncodedLocation() throws Exception{
+        //given
+        BDDMockito.given(employeeCsvImporter.start("hr 2024.csv"))
+                .willReturn(new ImportStatus("hr 2024.csv", ImportStatus.State.RUNNING, 1024, 0, 0, 0, null));
+        //when
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees/imports")
+                .param("file", "hr 2024.csv"));
+        //then
+        response.andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.LOCATION, "/api/employees/imports/hr%202024.csv"));
+    }
+}
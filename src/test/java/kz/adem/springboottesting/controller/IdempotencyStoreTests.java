@@ -0,0 +1,75 @@
+package kz.adem.springboottesting.controller;
+
+import kz.adem.springboottesting.config.EmployeeProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class IdempotencyStoreTests {
+    private final IdempotencyStore idempotencyStore = new IdempotencyStore(new EmployeeProperties());
+
+    @Test
+    @DisplayName("Junit test for a concurrent retry waiting on the request in flight")
+    public void givenRequestInFlight_whenRetriedConcurrently_thenWaitForItsResult() throws Exception{
+        //given
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        //when
+        try {
+            Future<IdempotencyStore.Result<String>> first = executor.submit(() -> idempotencyStore.execute("key", "body", () -> {
+                executions.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "Adem";
+            }));
+            started.await(5, TimeUnit.SECONDS);
+            Future<IdempotencyStore.Result<String>> retry = executor.submit(() -> idempotencyStore.execute("key", "body", () -> {
+                executions.incrementAndGet();
+                return "Tony";
+            }));
+            release.countDown();
+
+        //then
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(new IdempotencyStore.Result<>("Adem", false));
+            assertThat(retry.get(5, TimeUnit.SECONDS)).isEqualTo(new IdempotencyStore.Result<>("Adem", true));
+            assertThat(executions).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Junit test for a retry after a failed request")
+    public void givenFailedRequest_whenRetried_thenExecuteAgain(){
+        //given
+        assertThrows(IllegalStateException.class, () -> idempotencyStore.execute("key", "body", () -> {
+            throw new IllegalStateException("Database unavailable");
+        }));
+
+        //when
+        IdempotencyStore.Result<String> result = idempotencyStore.execute("key", "body", () -> "Adem");
+
+        //then
+        assertThat(result).isEqualTo(new IdempotencyStore.Result<>("Adem", false));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package kz.adem.springboottesting.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class ReadWriteRoutingDataSourceTests {
+    private final DataSource primary = Mockito.mock(DataSource.class);
+    private final DataSource replica = Mockito.mock(DataSource.class);
+    private final Connection primaryConnection = Mockito.mock(Connection.class);
+    private final Connection replicaConnection = Mockito.mock(Connection.class);
+    private final ReadWriteRoutingDataSource dataSource =
+            new ReadWriteRoutingDataSource(primary, replica, Duration.ofMinutes(1));
+
+    @BeforeEach
+    public void setup() throws SQLException{
+        given(primary.getConnection()).willReturn(primaryConnection);
+        given(replica.getConnection()).willReturn(replicaConnection);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    public void tearDown(){
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Junit test for read-only transaction routed to the replica")
+    public void givenReadOnlyTransaction_whenGetConnection_thenReturnReplicaConnection() throws SQLException{
+        //given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        //when
+        Connection connection = dataSource.getConnection();
+
+        //then
+        assertThat(connection).isSameAs(replicaConnection);
+    }
+
+    @Test
+    @DisplayName("Junit test for read-only transaction after a write in the same request")
+    public void givenWriteInSameRequest_whenGetReadOnlyConnection_thenReturnPrimaryConnection() throws SQLException{
+        //given
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        //when
+        Connection connection = dataSource.getConnection();
+
+        //then
+        assertThat(connection).isSameAs(primaryConnection);
+    }
+
+    @Test
+    @DisplayName("Junit test for read-only transaction that reads from the primary")
+    public void givenPrimaryRead_whenGetReadOnlyConnection_thenReturnPrimaryWithoutPinning() throws Throwable{
+        //given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        //when
+        Connection connection = ReadWriteRoutingDataSource.readFromPrimary(dataSource::getConnection);
+
+        //then
+        assertThat(connection).isSameAs(primaryConnection);
+        assertThat(dataSource.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    @DisplayName("Junit test for read-only transaction while the replica is down")
+    public void givenReplicaDown_whenGetReadOnlyConnection_thenFallBackToPrimary() throws SQLException{
+        //given
+        RequestContextHolder.resetRequestAttributes();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        given(replica.getConnection()).willThrow(new SQLException("Connection refused"));
+
+        //when
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+
+        //then
+        assertThat(first).isSameAs(primaryConnection);
+        assertThat(second).isSameAs(primaryConnection);
+        //the second read skips the replica instead of waiting for it again
+        verify(replica, times(1)).getConnection();
+    }
+}
@@ -0,0 +1,186 @@
+package kz.adem.springboottesting.importer;
+
+import kz.adem.springboottesting.config.EmployeeProperties;
+import kz.adem.springboottesting.dto.ImportStatus;
+import kz.adem.springboottesting.exception.ResourceAlreadyExistsException;
+import kz.adem.springboottesting.exception.ResourceNotFoundException;
+import kz.adem.springboottesting.model.Employee;
+import kz.adem.springboottesting.service.EmployeeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeCsvImporterTests {
+    @TempDir
+    private Path directory;
+    @Mock
+    private EmployeeService employeeService;
+    private EmployeeProperties employeeProperties;
+    private EmployeeCsvImporter importer;
+
+    @BeforeEach
+    public void setup(){
+        employeeProperties = new EmployeeProperties();
+        employeeProperties.getImports().setDirectory(directory.toString());
+        employeeProperties.getImports().setChunkSize(2);
+        //small windows so the file is mapped in several parts
+        employeeProperties.getImports().setWindowSize(DataSize.ofBytes(64));
+        employeeProperties.getImports().setParserThreads(2);
+        importer = new EmployeeCsvImporter(employeeService, employeeProperties);
+    }
+
+    @AfterEach
+    public void tearDown(){
+        importer.destroy();
+    }
+
+    @Test
+    @DisplayName("Junit test for CSV import with invalid and duplicate rows")
+    public void givenCsvFile_whenImport_thenSaveValidRowsAndRejectTheRest() throws Exception{
+        //given
+        Files.writeString(directory.resolve("hr.csv"), """
+                firstName,lastName,email
+                Adem,Shanghai,adem@gmail.com
+                Tony,Stark,not-an-email
+                "Rogers, Steve",Rogers,steve@gmail.com
+                Bruce,Banner,ADEM@gmail.com
+                Natasha,Romanoff,taken@gmail.com
+                Peter,Parker,peter@gmail.com""");
+        //stored emails match case-insensitively, like the unique index
+        List<String> saved = new ArrayList<>(List.of("taken@gmail.com"));
+        given(employeeService.findExistingEmails(anyCollection())).willAnswer(invocation -> {
+            Collection<String> emails = invocation.getArgument(0);
+            return saved.stream().filter(stored -> emails.stream().anyMatch(stored::equalsIgnoreCase))
+                    .collect(Collectors.toSet());
+        });
+        given(employeeService.saveEmployees(anyList())).willAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            employees.forEach(employee -> saved.add(employee.getEmail()));
+            return employees;
+        });
+
+        //when
+        importer.start("hr.csv");
+        ImportStatus status = awaitFinished("hr.csv");
+
+        //then
+        assertThat(status.getState()).isEqualTo(ImportStatus.State.COMPLETED);
+        assertThat(saved).containsExactly("taken@gmail.com", "adem@gmail.com", "steve@gmail.com", "peter@gmail.com");
+        assertThat(status.getImportedRows()).isEqualTo(3);
+        assertThat(status.getRejectedRows()).isEqualTo(3);
+        assertThat(status.getCommittedBytes()).isEqualTo(status.getTotalBytes());
+        assertThat(Files.readAllLines(directory.resolve("hr.csv.rejected")))
+                .extracting(line -> line.split("\t")[0] + " " + line.split("\t")[1])
+                .containsExactly("3 invalid email", "5 email already exists", "6 email already exists");
+    }
+
+    @Test
+    @DisplayName("Junit test for CSV import when an email is taken concurrently after the bulk check")
+    public void givenEmailTakenConcurrently_whenImport_thenRetryRowByRowAndRejectTheConflict() throws Exception{
+        //given
+        Files.writeString(directory.resolve("hr.csv"), """
+                Adem,Shanghai,adem@gmail.com
+                Tony,Stark,tony@gmail.com
+                Peter,Parker,peter@gmail.com
+                """);
+        List<String> saved = new ArrayList<>();
+        given(employeeService.findExistingEmails(anyCollection())).willReturn(Set.of());
+        //tony@gmail.com is inserted by another request between the check and the insert
+        given(employeeService.saveEmployees(anyList())).willAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            if (employees.stream().anyMatch(employee -> employee.getEmail().equals("tony@gmail.com"))) {
+                throw new ResourceAlreadyExistsException("Employee already exist with one of the given emails");
+            }
+            employees.forEach(employee -> saved.add(employee.getEmail()));
+            return employees;
+        });
+        given(employeeService.saveEmployee(any(Employee.class))).willAnswer(invocation -> {
+            Employee employee = invocation.getArgument(0);
+            if (employee.getEmail().equals("tony@gmail.com")) {
+                throw new ResourceAlreadyExistsException("Employee already exist with given email: tony@gmail.com");
+            }
+            saved.add(employee.getEmail());
+            return employee;
+        });
+
+        //when
+        importer.start("hr.csv");
+        ImportStatus status = awaitFinished("hr.csv");
+
+        //then
+        assertThat(status.getState()).isEqualTo(ImportStatus.State.COMPLETED);
+        assertThat(saved).containsExactly("adem@gmail.com", "peter@gmail.com");
+        assertThat(status.getImportedRows()).isEqualTo(2);
+        assertThat(status.getRejectedRows()).isEqualTo(1);
+        assertThat(Files.readAllLines(directory.resolve("hr.csv.rejected")))
+                .containsExactly("2\temail already exists\tTony,Stark,tony@gmail.com");
+    }
+
+    @Test
+    @DisplayName("Junit test for resuming a CSV import from its checkpoint")
+    public void givenCheckpoint_whenImport_thenSkipCommittedRows() throws Exception{
+        //given
+        String committed = "Adem,Shanghai,adem@gmail.com\n";
+        Files.writeString(directory.resolve("hr.csv"), committed + "Tony,Stark,tony@gmail.com\n");
+        new ImportCheckpoint(committed.length(), 1, 1, 0, 0).write(directory.resolve("hr.csv.checkpoint"));
+        given(employeeService.findExistingEmails(anyCollection())).willReturn(Set.of());
+        given(employeeService.saveEmployees(anyList())).willAnswer(invocation -> invocation.getArgument(0));
+
+        //when
+        importer.start("hr.csv");
+        ImportStatus status = awaitFinished("hr.csv");
+
+        //then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Employee>> employees = ArgumentCaptor.forClass(List.class);
+        verify(employeeService, timeout(5000).atLeastOnce()).saveEmployees(employees.capture());
+        assertThat(employees.getAllValues()).flatExtracting(list -> list).extracting(Employee::getEmail)
+                .containsExactly("tony@gmail.com");
+        assertThat(status.getImportedRows()).isEqualTo(2);
+        assertThat(ImportCheckpoint.read(directory.resolve("hr.csv.checkpoint")).lines()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Junit test for CSV import of a file outside the import directory")
+    public void givenPathOutsideDirectory_whenImport_thenThrowException(){
+        assertThrows(ResourceNotFoundException.class, () -> importer.start("../hr.csv"));
+        assertThrows(ResourceNotFoundException.class, () -> importer.start("missing.csv"));
+    }
+
+    private ImportStatus awaitFinished(String file) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            ImportStatus status = importer.getStatus(file).orElseThrow();
+            if (status.getState() != ImportStatus.State.RUNNING) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Import did not finish");
+    }
+}
@@ -0,0 +1,249 @@
+package kz.adem.springboottesting.integration;
+
+import io.r2dbc.spi.ConnectionFactory;
+import kz.adem.springboottesting.model.Employee;
+import kz.adem.springboottesting.repository.ReactiveEmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//WebFlux + R2DBC mode (reactive profile) against an embedded H2 database
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password="
+})
+@ActiveProfiles("reactive")
+public class EmployeeApiReactiveModeTests {
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactiveEmployeeRepository employeeRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private ConnectionFactory connectionFactory;
+
+    @BeforeEach
+    void setup(){
+        employeeRepository.deleteAll().block();
+    }
+
+    @Test
+    @DisplayName("Junit test for create and get employee REST API in reactive mode")
+    public void givenEmployee_whenCreateAndGetEmployee_thenReturnEmployeeWithETag(){
+        //given
+        Employee employee = Employee.builder()
+                .firstName("Adem")
+                .lastName("Shanghai")
+                .email("adem@gmail.com")
+                .build();
+        Employee created = webTestClient.post().uri("/api/employees")
+                .bodyValue(employee)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Employee.class).returnResult().getResponseBody();
+
+        //when
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees/{id}", created.getId()).exchange();
+
+        //then
+        response.expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody().jsonPath("$.email").isEqualTo(employee.getEmail());
+    }
+
+    @Test
+    @DisplayName("Junit test for create employee REST API with a taken email in reactive mode")
+    public void givenTakenEmail_whenCreateEmployee_thenReturn409(){
+        //given
+        webTestClient.post().uri("/api/employees")
+                .bodyValue(Employee.builder().firstName("Adem").lastName("Shanghai").email("adem@gmail.com").build())
+                .exchange()
+                .expectStatus().isCreated();
+        Employee employee = Employee.builder()
+                .firstName("Other")
+                .lastName("Other")
+                .email("adem@gmail.com")
+                .build();
+
+        //when
+        WebTestClient.ResponseSpec response = webTestClient.post().uri("/api/employees").bodyValue(employee).exchange();
+
+        //then
+        response.expectStatus().isEqualTo(409);
+    }
+
+    @Test
+    @DisplayName("Junit test for update employee REST API with a stale version in reactive mode")
+    public void givenStaleIfMatch_whenUpdateEmployee_thenReturn412(){
+        //given
+        Employee savedEmployee = createEmployees(1).get(0);
+        Employee updatedEmployee = Employee.builder()
+                .firstName("Updated").lastName("Updated").email("updated@gmail.com").build();
+
+        //when
+        WebTestClient.ResponseSpec response = webTestClient.put().uri("/api/employees/{id}", savedEmployee.getId())
+                .header(HttpHeaders.IF_MATCH, "\"7\"")
+                .bodyValue(updatedEmployee)
+                .exchange();
+
+        //then
+        response.expectStatus().isEqualTo(412);
+    }
+
+    @Test
+    @DisplayName("Junit test for the written version and ETag of PUT without If-Match and PATCH in reactive mode")
+    public void givenNoIfMatch_whenUpdateAndPatchEmployee_thenReturnWrittenVersionAndETag(){
+        //given
+        Employee savedEmployee = createEmployees(1).get(0);
+        Employee updatedEmployee = Employee.builder()
+                .firstName("Updated").lastName("Updated").email("updated@gmail.com").build();
+
+        //when
+        WebTestClient.ResponseSpec updateResponse = webTestClient.put().uri("/api/employees/{id}", savedEmployee.getId())
+                .bodyValue(updatedEmployee)
+                .exchange();
+        WebTestClient.ResponseSpec patchResponse = webTestClient.patch().uri("/api/employees/{id}", savedEmployee.getId())
+                .bodyValue(Map.of("firstName", "Patched"))
+                .exchange();
+
+        //then
+        updateResponse.expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
+                .expectBody().jsonPath("$.version").isEqualTo(1);
+        patchResponse.expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"2\"")
+                .expectBody().jsonPath("$.version").isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Junit test for get all employees REST API in reactive mode")
+    public void givenEmployees_whenGetAllEmployees_thenReturnPages(){
+        //given
+        createEmployees(3);
+
+        //when
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees?limit=2").exchange();
+
+        //then
+        response.expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(2)
+                .jsonPath("$.nextCursor").isNotEmpty();
+    }
+
+    @Test
+    @DisplayName("Junit test for export employees REST API streaming in reactive mode")
+    public void givenEmployees_whenExportEmployees_thenStreamAllAsNdjson(){
+        //given
+        List<Employee> employees = createEmployees(120);
+
+        //when
+        Flux<Employee> exported = webTestClient.get().uri("/api/employees/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Employee.class).getResponseBody();
+
+        //then
+        StepVerifier.create(exported.map(Employee::getId))
+                .expectNextSequence(employees.stream().map(Employee::getId).toList())
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Junit test for delete employee REST API in reactive mode")
+    public void givenEmployeeId_whenDeleteEmployee_thenReturn200(){
+        //given
+        Employee savedEmployee = createEmployees(1).get(0);
+
+        //when
+        WebTestClient.ResponseSpec response = webTestClient.delete().uri("/api/employees/{id}", savedEmployee.getId()).exchange();
+
+        //then
+        response.expectStatus().isOk();
+        webTestClient.get().uri("/api/employees/{id}", savedEmployee.getId()).exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("Junit test for employee writes recording outbox events in reactive mode")
+    public void givenEmployeeWrites_whenReadOutbox_thenOneEventPerWriteInOrder(){
+        //given
+        Employee savedEmployee = createEmployees(1).get(0);
+        webTestClient.put().uri("/api/employees/{id}", savedEmployee.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(Employee.builder().firstName("Updated").lastName("Updated").email("updated@gmail.com").build())
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.delete().uri("/api/employees/{id}", savedEmployee.getId())
+                .exchange()
+                .expectStatus().isOk();
+
+        //when
+        List<String> events = databaseClient.sql("select type, version from employee_events where employee_id = :id order by id")
+                .bind("id", savedEmployee.getId())
+                .map(row -> row.get("type", String.class) + " " + row.get("version", Long.class))
+                .all().collectList().block();
+
+        //then
+        assertThat(events).containsExactly("CREATED 0", "UPDATED 1", "DELETED null");
+    }
+
+    @Test
+    @DisplayName("Junit test for create employee REST API on a table that already has rows in reactive mode")
+    public void givenExistingEmployeesAndFreshSequence_whenInitSchemaAndCreateEmployee_thenIdAfterExistingOnes(){
+        //given
+        databaseClient.sql("insert into employees (id, email, first_name, last_name, version) " +
+                "values (5000, 'existing@gmail.com', 'Existing', 'Row', 0)").then().block();
+        databaseClient.sql("update employees_seq set next_val = 1").then().block();
+
+        //when
+        new ResourceDatabasePopulator(new ClassPathResource("db/employees-schema.sql")).populate(connectionFactory).block();
+        Employee created = webTestClient.post().uri("/api/employees")
+                .bodyValue(Employee.builder().firstName("Adem").lastName("Shanghai").email("adem@gmail.com").build())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Employee.class).returnResult().getResponseBody();
+
+        //then
+        assertThat(created.getId()).isGreaterThan(5000L);
+        assertThat(databaseClient.sql("select next_val from employees_seq").map(row -> row.get(0, Long.class)).one().block())
+                .isGreaterThanOrEqualTo(5000L + Employee.ID_ALLOCATION_SIZE);
+    }
+
+    private List<Employee> createEmployees(int count) {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            employees.add(Employee.builder().firstName("First"+i).lastName("Last"+i).email(i+"@gmail.com").build());
+        }
+        List<Employee> created = webTestClient.post().uri("/api/employees/batch")
+                .bodyValue(employees)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBodyList(Employee.class).returnResult().getResponseBody();
+        assertThat(created).hasSize(count);
+        return created;
+    }
+}
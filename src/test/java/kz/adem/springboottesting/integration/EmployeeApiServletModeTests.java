@@ -0,0 +1,448 @@
+package kz.adem.springboottesting.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.EntityManagerFactory;
+import kz.adem.springboottesting.config.CacheConfig;
+import kz.adem.springboottesting.model.Employee;
+import kz.adem.springboottesting.model.EmployeeEvent;
+import kz.adem.springboottesting.monitoring.SqlStatementStats;
+import kz.adem.springboottesting.repository.EmployeeEventRepository;
+import kz.adem.springboottesting.repository.EmployeeRepository;
+import org.assertj.core.api.Assertions;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+//servlet + JPA mode against an embedded H2 database. Requests over their employees.sql.budgets.* budget fail
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:servlet;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "employees.write-timeout-seconds=2",
+        "employees.outbox.settle-delay=4s",
+        "employees.sync.settle-delay=4s",
+        "employees.sql.fail-on-budget-exceeded=true"
+})
+@AutoConfigureMockMvc
+public class EmployeeApiServletModeTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EmployeeEventRepository eventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${employees.outbox.settle-delay}")
+    private Duration outboxSettleDelay;
+
+    @Value("${employees.sync.settle-delay}")
+    private Duration syncSettleDelay;
+
+    @BeforeEach
+    void setup(){
+        employeeRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Junit test for create and get employee REST API in servlet mode")
+    public void givenEmployee_whenCreateAndGetEmployee_thenReturnEmployeeWithETag() throws Exception{
+        //given
+        Employee employee = Employee.builder()
+                .firstName("Adem")
+                .lastName("Shanghai")
+                .email("adem@gmail.com")
+                .build();
+        String created = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Long id = objectMapper.readValue(created, Employee.class).getId();
+
+        //when
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", id));
+
+        //then
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.email", CoreMatchers.is(employee.getEmail())));
+    }
+
+    @Test
+    @DisplayName("Junit test for create employee REST API with a taken email in servlet mode")
+    public void givenTakenEmail_whenCreateEmployee_thenReturn409() throws Exception{
+        //given
+        employeeRepository.save(Employee.builder().firstName("Adem").lastName("Shanghai").email("adem@gmail.com").build());
+        Employee employee = Employee.builder()
+                .firstName("Other")
+                .lastName("Other")
+                .email("adem@gmail.com")
+                .build();
+
+        //when
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        //then
+        response.andExpect(MockMvcResultMatchers.status().isConflict());
+    }
+
+    @Test
+    @DisplayName("Junit test for create employee REST API with a missing column in servlet mode")
+    public void givenMissingLastName_whenCreateEmployee_thenReturn400() throws Exception{
+        //given
+        Employee employee = Employee.builder()
+                .firstName("Adem")
+                .email("adem@gmail.com")
+                .build();
+
+        //when
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        //then
+        response.andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Junit test for update employee REST API with a stale version in servlet mode")
+    public void givenStaleIfMatch_whenUpdateEmployee_thenReturn412() throws Exception{
+        //given
+        Employee savedEmployee = employeeRepository.save(Employee.builder()
+                .firstName("Adem").lastName("Shanghai").email("adem@gmail.com").build());
+        Employee updatedEmployee = Employee.builder()
+                .firstName("Updated").lastName("Updated").email("updated@gmail.com").build();
+
+        //when
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.put("/api/employees/{id}", savedEmployee.getId())
+                .header(HttpHeaders.IF_MATCH, "\"7\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedEmployee)));
+
+        //then
+        response.andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+    }
+
+    @Test
+    @DisplayName("Junit test for the written version and ETag of PUT without If-Match and PATCH in servlet mode")
+    public void givenNoIfMatch_whenUpdateAndPatchEmployee_thenReturnWrittenVersionAndETag() throws Exception{
+        //given
+        Employee savedEmployee = employeeRepository.save(Employee.builder()
+                .firstName("Adem").lastName("Shanghai").email("adem@gmail.com").build());
+        Employee updatedEmployee = Employee.builder()
+                .firstName("Updated").lastName("Updated").email("updated@gmail.com").build();
+
+        //when
+        ResultActions updateResponse = mockMvc.perform(MockMvcRequestBuilders.put("/api/employees/{id}", savedEmployee.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedEmployee)));
+        ResultActions patchResponse = mockMvc.perform(MockMvcRequestBuilders.patch("/api/employees/{id}", savedEmployee.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"Patched\"}"));
+
+        //then
+        updateResponse.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.version", CoreMatchers.is(1)));
+        patchResponse.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"2\""))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.version", CoreMatchers.is(2)));
+    }
+
+    @Test
+    @DisplayName("Junit test for get all employees REST API in servlet mode")
+    public void givenEmployees_whenGetAllEmployees_thenReturnPages() throws Exception{
+        //given
+        for (int i = 0; i < 3; i++) {
+            employeeRepository.save(Employee.builder().firstName("First"+i).lastName("Last"+i).email(i+"@gmail.com").build());
+        }
+
+        //when
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees").param("limit", "2"));
+
+        //then
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content.size()", CoreMatchers.is(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor", CoreMatchers.notNullValue()));
+    }
+
+    @Test
+    @DisplayName("Junit test for delete employee REST API in servlet mode")
+    public void givenEmployeeId_whenDeleteEmployee_thenReturn200() throws Exception{
+        //given
+        Employee savedEmployee = employeeRepository.save(Employee.builder()
+                .firstName("Adem").lastName("Shanghai").email("adem@gmail.com").build());
+
+        //when
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.delete("/api/employees/{id}", savedEmployee.getId()));
+
+        //then
+        response.andExpect(MockMvcResultMatchers.status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", savedEmployee.getId()))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Junit test for employee change feed REST API in servlet mode")
+    public void givenEmployeeWrites_whenGetEvents_thenReturnChangesAfterCursor() throws Exception{
+        //given
+        String cursor = objectMapper.readTree(events(MockMvcRequestBuilders.get("/api/employees/events")
+                .param("limit", "500")).andReturn().getResponse().getContentAsString()).get("nextCursor").asText();
+        String created = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Employee.builder()
+                                .firstName("Adem").lastName("Shanghai").email("adem@gmail.com").build())))
+                .andReturn().getResponse().getContentAsString();
+        Long id = objectMapper.readValue(created, Employee.class).getId();
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/employees/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"lastName\":\"Almaty\"}"));
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/employees/{id}", id));
+        Thread.sleep(outboxSettleDelay.toMillis() + 100);
+
+        //when
+        ResultActions response = events(MockMvcRequestBuilders.get("/api/employees/events").param("after", cursor));
+
+        //then
+        //events of earlier tests that had not settled when the cursor was taken come after it as well
+        String ofEmployee = "$.content[?(@.employeeId == " + id + ")]";
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath(ofEmployee + ".type",
+                        CoreMatchers.is(List.of("CREATED", "UPDATED", "DELETED"))))
+                .andExpect(MockMvcResultMatchers.jsonPath(ofEmployee + ".lastName",
+                        CoreMatchers.is(java.util.Arrays.asList("Shanghai", "Almaty", null))))
+                .andExpect(MockMvcResultMatchers.jsonPath(ofEmployee + ".version",
+                        CoreMatchers.is(java.util.Arrays.asList(0, 1, null))));
+    }
+
+    @Test
+    @DisplayName("Junit test for employee change feed REST API when a lower event id commits after a higher one in servlet mode")
+    public void givenLowerEventIdCommittedLast_whenReadEvents_thenNoEventIsSkipped() throws Exception{
+        //given
+        String cursor = objectMapper.readTree(events(MockMvcRequestBuilders.get("/api/employees/events")
+                .param("limit", "500")).andReturn().getResponse().getContentAsString()).get("nextCursor").asText();
+        CountDownLatch lowerSaved = new CountDownLatch(1);
+        CountDownLatch higherCommitted = new CountDownLatch(1);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CompletableFuture<Long> lower = CompletableFuture.supplyAsync(() -> transaction.execute(status -> {
+            Long id = eventRepository.saveAndFlush(EmployeeEvent.deleted(-1L)).getId();
+            lowerSaved.countDown();
+            try {
+                higherCommitted.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return id;
+        }));
+        lowerSaved.await(5, TimeUnit.SECONDS);
+        Long higher = eventRepository.save(EmployeeEvent.deleted(-2L)).getId();
+
+        //when
+        //the consumer reads while the lower id is still uncommitted, then again after it committed
+        JsonNode first = objectMapper.readTree(events(MockMvcRequestBuilders.get("/api/employees/events")
+                .param("after", cursor).param("limit", "500")).andReturn().getResponse().getContentAsString());
+        higherCommitted.countDown();
+        Long lowerId = lower.get(5, TimeUnit.SECONDS);
+        Thread.sleep(outboxSettleDelay.toMillis() + 100);
+        JsonNode second = objectMapper.readTree(events(MockMvcRequestBuilders.get("/api/employees/events")
+                .param("after", first.get("nextCursor").asText()).param("limit", "500"))
+                .andReturn().getResponse().getContentAsString());
+
+        //then
+        List<Long> served = new ArrayList<>();
+        for (JsonNode page : List.of(first, second)) {
+            page.get("content").forEach(event -> served.add(event.get("id").asLong()));
+        }
+        Assertions.assertThat(lowerId).isLessThan(higher);
+        Assertions.assertThat(served).containsSubsequence(lowerId, higher);
+    }
+
+    @Test
+    @DisplayName("Junit test for delta sync REST API in servlet mode")
+    public void givenEmployeeWrites_whenGetChanges_thenReturnUpsertsAndDeletionsSinceToken() throws Exception{
+        //given
+        String token = objectMapper.readTree(mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/changes")
+                .param("limit", "1000")).andReturn().getResponse().getContentAsString()).get("nextToken").asText();
+        Employee kept = employeeRepository.save(Employee.builder()
+                .firstName("Adem").lastName("Shanghai").email("adem@gmail.com").build());
+        Employee deleted = employeeRepository.save(Employee.builder()
+                .firstName("Tony").lastName("Stark").email("stark@gmail.com").build());
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/employees/{id}", kept.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"lastName\":\"Almaty\"}"));
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/employees/{id}", deleted.getId()));
+        Thread.sleep(syncSettleDelay.toMillis() + 100);
+
+        //when
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/changes").param("since", token));
+
+        //then
+        //rows of earlier tests that had not settled when the token was taken come after it as well
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.upserts[?(@.id == " + kept.getId() + ")].lastName",
+                        CoreMatchers.is(List.of("Almaty"))))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.upserts[?(@.id == " + deleted.getId() + ")]",
+                        CoreMatchers.is(List.of())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.deletions", CoreMatchers.hasItem(deleted.getId().intValue())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.hasMore", CoreMatchers.is(false)));
+        String nextToken = objectMapper.readTree(response.andReturn().getResponse().getContentAsString()).get("nextToken").asText();
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/changes").param("since", nextToken))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.upserts.size()", CoreMatchers.is(0)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextToken", CoreMatchers.is(nextToken)));
+        //the tombstone keeps its email but does not block reusing it
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Employee.builder()
+                                .firstName("Tony").lastName("Stark").email("stark@gmail.com").build())))
+                .andExpect(MockMvcResultMatchers.status().isCreated());
+    }
+
+    @Test
+    @DisplayName("Junit test for the SQL statements of create employee REST API in servlet mode")
+    public void givenEmployee_whenCreateEmployee_thenIssueExactStatements() throws Exception{
+        //given
+        Employee employee = Employee.builder()
+                .firstName("Adem")
+                .lastName("Shanghai")
+                .email("adem@gmail.com")
+                .build();
+        long idSequence = idSequenceValue();
+
+        //when
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn();
+
+        //then
+        //insert employee, next event id, insert event, and the next id block when the pooled one ran out
+        long idBlocks = (idSequenceValue() - idSequence) / Employee.ID_ALLOCATION_SIZE;
+        Assertions.assertThat(statements(result)).isEqualTo(3 + idBlocks);
+    }
+
+    @Test
+    @DisplayName("Junit test for the SQL statements of get employee by id REST API in servlet mode")
+    public void givenEmployeeId_whenGetEmployeeById_thenIssueExactStatements() throws Exception{
+        //given
+        Employee savedEmployee = employeeRepository.save(Employee.builder()
+                .firstName("Adem").lastName("Shanghai").email("adem@gmail.com").build());
+        clearCaches();
+
+        //when
+        MvcResult cold = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", savedEmployee.getId()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        MvcResult cached = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", savedEmployee.getId()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+
+        //then
+        Assertions.assertThat(statements(cold)).isEqualTo(1);
+        Assertions.assertThat(statements(cached)).isZero();
+    }
+
+    @Test
+    @DisplayName("Junit test for the SQL statements of update, patch and delete employee REST API in servlet mode")
+    public void givenEmployee_whenUpdatePatchAndDeleteEmployee_thenIssueExactStatements() throws Exception{
+        //given
+        Employee savedEmployee = employeeRepository.save(Employee.builder()
+                .firstName("Adem").lastName("Shanghai").email("adem@gmail.com").build());
+        clearCaches();
+
+        //when
+        MvcResult update = mockMvc.perform(MockMvcRequestBuilders.put("/api/employees/{id}", savedEmployee.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Employee.builder()
+                                .firstName("Updated").lastName("Updated").email("updated@gmail.com").build())))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        clearCaches();
+        MvcResult patch = mockMvc.perform(MockMvcRequestBuilders.patch("/api/employees/{id}", savedEmployee.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"lastName\":\"Almaty\"}"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        MvcResult delete = mockMvc.perform(MockMvcRequestBuilders.delete("/api/employees/{id}", savedEmployee.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"2\""))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+
+        //then
+        //conditional update, next event id, insert event
+        Assertions.assertThat(statements(update)).isEqualTo(3);
+        //select, update of the changed column, next event id, insert event
+        Assertions.assertThat(statements(patch)).isEqualTo(4);
+        //conditional soft delete, next event id, insert event
+        Assertions.assertThat(statements(delete)).isEqualTo(3);
+    }
+
+    private static int statements(MvcResult result) {
+        return ((SqlStatementStats) result.getRequest().getAttribute(SqlStatementStats.REQUEST_ATTRIBUTE)).getStatements();
+    }
+
+    //next value the employees sequence hands out, it moves by one id block per sequence call
+    private long idSequenceValue() {
+        return jdbcTemplate.queryForObject(
+                "select base_value from information_schema.sequences where sequence_name = 'EMPLOYEES_SEQ'", Long.class);
+    }
+
+    private void clearCaches() {
+        cacheManager.getCache(CacheConfig.EMPLOYEES_BY_ID).clear();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    //the feed answers through a DeferredResult, MockMvc needs the async dispatch to see the body
+    private ResultActions events(MockHttpServletRequestBuilder request) throws Exception{
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result));
+    }
+}
@@ -168,7 +168,7 @@ public class EmployeeControllerIT {
         //then
         response.andExpect(MockMvcResultMatchers.status().isOk())
                 .andDo(MockMvcResultHandlers.print())
-                .andExpect(MockMvcResultMatchers.jsonPath("$.size()",CoreMatchers.is(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content.size()",CoreMatchers.is(2)))
                 .andExpect(MockMvcResultMatchers.status().isOk());
     }
 
@@ -0,0 +1,47 @@
+package kz.adem.springboottesting.integration;
+
+import kz.adem.springboottesting.model.Employee;
+import kz.adem.springboottesting.service.EmployeeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//the database already holds employees when the application starts, db/existing-employees.sql
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:existing;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.schema-locations=classpath:db/existing-employees.sql",
+        "spring.jpa.hibernate.ddl-auto=update"
+})
+public class EmployeeIdSequenceTests {
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Test
+    @DisplayName("Junit test for save employees into a table that already has rows")
+    public void givenExistingEmployees_whenSaveEmployees_thenIdsStartAfterTheExistingOnes(){
+        //given
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < Employee.ID_ALLOCATION_SIZE + 10; i++) {
+            employees.add(Employee.builder().firstName("First"+i).lastName("Last"+i).email(i+"@gmail.com").build());
+        }
+
+        //when
+        Employee employee = employeeService.saveEmployee(Employee.builder()
+                .firstName("Bruce").lastName("Wayne").email("bruce@gmail.com").build());
+        List<Employee> savedEmployees = employeeService.saveEmployees(employees);
+
+        //then
+        //the deleted row with id 70 is the highest existing id
+        assertThat(employee.getId()).isGreaterThan(70L);
+        assertThat(savedEmployees).extracting(Employee::getId).allMatch(id -> id > 70L).doesNotHaveDuplicates();
+    }
+}
@@ -0,0 +1,57 @@
+package kz.adem.springboottesting.integration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import kz.adem.springboottesting.service.EmployeeService;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//metrics export is switched off in tests by default, AutoConfigureObservability brings the prometheus registry back
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:metrics;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class EmployeeMetricsTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Junit test for the employee.service timer")
+    public void givenServiceCall_whenScrapePrometheus_thenReturnEmployeeServiceTimer() throws Exception{
+        //given
+        employeeService.getEmployeesPage(null, 10);
+
+        //when
+        Timer timer = meterRegistry.find("employee.service")
+                .tag("method", "getEmployeesPage")
+                .timer();
+
+        //then
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isGreaterThanOrEqualTo(1);
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string(CoreMatchers.containsString(
+                        "employee_service_seconds_count{class=\"kz.adem.springboottesting.service.impl.EmployeeServiceImpl\",exception=\"none\",method=\"getEmployeesPage\",}")));
+    }
+}
@@ -0,0 +1,169 @@
+package kz.adem.springboottesting.integration;
+
+import jakarta.persistence.EntityManagerFactory;
+import kz.adem.springboottesting.config.CacheConfig;
+import kz.adem.springboottesting.model.Employee;
+import kz.adem.springboottesting.repository.EmployeeRepository;
+import kz.adem.springboottesting.service.EmployeeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//two embedded H2 databases stand in for the primary and the replica, nothing replicates between them
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.replica.url=jdbc:h2:mem:replica;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.replica.username=sa",
+        "spring.datasource.replica.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+public class ReplicaRoutingTests {
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setup(){
+        employeeRepository.deleteAll();
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("create table if not exists employees (id bigint not null primary key, email varchar(255) not null, " +
+                "first_name varchar(255) not null, last_name varchar(255) not null, version bigint not null, " +
+                "updated_at timestamp(6) with time zone default current_timestamp(6) not null, active boolean default true)");
+        replica.update("delete from employees");
+        replica.update("insert into employees (id, email, first_name, last_name, version) values (1000, 'replica@gmail.com', 'Replica', 'Row', 0)");
+        newRequest();
+    }
+
+    @AfterEach
+    void tearDown(){
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    //writes pin the current request to the primary, so every scenario starts from a fresh one
+    private static void newRequest(){
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @Test
+    @DisplayName("Junit test for get all employees reading from the replica")
+    public void givenRowOnlyOnReplica_whenGetAllEmployees_thenReturnReplicaRows(){
+        //given
+        employeeRepository.save(Employee.builder().firstName("Adem").lastName("Shanghai").email("adem@gmail.com").build());
+        newRequest();
+
+        //when
+        List<Employee> employees = employeeService.getAllEmployees();
+
+        //then
+        assertThat(employees).extracting(Employee::getEmail).containsExactly("replica@gmail.com");
+    }
+
+    @Test
+    @DisplayName("Junit test for get all employees after a write in the same request")
+    public void givenWriteInSameRequest_whenGetAllEmployees_thenReadYourWrites(){
+        //given
+        employeeService.saveEmployee(Employee.builder().firstName("Adem").lastName("Shanghai").email("adem@gmail.com").build());
+
+        //when
+        List<Employee> employees = employeeService.getAllEmployees();
+
+        //then
+        assertThat(employees).extracting(Employee::getEmail).containsExactly("adem@gmail.com");
+    }
+
+    @Test
+    @DisplayName("Junit test for get all employees not caching replica rows")
+    public void givenRowOnlyOnReplica_whenGetAllEmployees_thenRowIsNotPutIntoSecondLevelCache(){
+        //when
+        List<Employee> employees = employeeService.getAllEmployees();
+
+        //then
+        assertThat(employees).extracting(Employee::getId).containsExactly(1000L);
+        assertThat(entityManagerFactory.getCache().contains(Employee.class, 1000L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Junit test for get employee by id loading cache misses from the primary")
+    public void givenRowOnlyOnPrimary_whenGetEmployeeById_thenLoadFromPrimary(){
+        //given
+        Employee savedEmployee = employeeRepository.save(Employee.builder()
+                .firstName("Adem").lastName("Shanghai").email("adem@gmail.com").build());
+        cacheManager.getCache(CacheConfig.EMPLOYEES_BY_ID).clear();
+        entityManagerFactory.getCache().evictAll();
+        newRequest();
+
+        //when
+        Optional<Employee> employee = employeeService.getEmployeeById(savedEmployee.getId());
+        Optional<Employee> replicaOnly = employeeService.getEmployeeById(1000L);
+
+        //then
+        assertThat(employee).map(Employee::getEmail).contains("adem@gmail.com");
+        assertThat(replicaOnly).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Junit test for get all employees after a cache fill in the same request")
+    public void givenCacheFillInSameRequest_whenGetAllEmployees_thenStillReadFromReplica(){
+        //given
+        Employee savedEmployee = employeeRepository.save(Employee.builder()
+                .firstName("Adem").lastName("Shanghai").email("adem@gmail.com").build());
+        cacheManager.getCache(CacheConfig.EMPLOYEES_BY_ID).clear();
+        newRequest();
+        employeeService.getEmployeeById(savedEmployee.getId());
+        employeeRepository.findByJPQL("Adem", "Shanghai");
+
+        //when
+        List<Employee> employees = employeeService.getAllEmployees();
+
+        //then
+        //the primary reads were read-only, they do not pin the request to the primary like a write does
+        assertThat(employees).extracting(Employee::getEmail).containsExactly("replica@gmail.com");
+    }
+
+    @Test
+    @DisplayName("Junit test for query cached name finder loading from the primary")
+    public void givenRowOnlyOnReplica_whenFindByJPQL_thenReadFromPrimary(){
+        //given
+        employeeRepository.save(Employee.builder().firstName("Adem").lastName("Shanghai").email("adem@gmail.com").build());
+        newRequest();
+
+        //when
+        Employee replicaOnly = employeeRepository.findByJPQL("Replica", "Row");
+        Employee employee = employeeRepository.findByJPQL("Adem", "Shanghai");
+
+        //then
+        assertThat(replicaOnly).isNull();
+        assertThat(employee.getEmail()).isEqualTo("adem@gmail.com");
+    }
+}
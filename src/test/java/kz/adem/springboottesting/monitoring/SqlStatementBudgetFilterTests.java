@@ -0,0 +1,65 @@
+package kz.adem.springboottesting.monitoring;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kz.adem.springboottesting.config.EmployeeProperties;
+import kz.adem.springboottesting.controller.EmployeeController;
+import kz.adem.springboottesting.model.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SqlStatementBudgetFilterTests {
+    private final EmployeeProperties employeeProperties = new EmployeeProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SqlStatementBudgetFilter filter = new SqlStatementBudgetFilter(employeeProperties, meterRegistry);
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    public void setup() throws Exception{
+        employeeProperties.getSql().getBudgets().put("EmployeeController.createEmployee", 2);
+        employeeProperties.getSql().setFailOnBudgetExceeded(true);
+        request = new MockHttpServletRequest("POST", "/api/employees");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, new HandlerMethod(
+                new EmployeeController(null, null, null, null, null), EmployeeController.class.getMethod("createEmployee", Employee.class, String.class)));
+    }
+
+    @Test
+    @DisplayName("Junit test for request within its SQL statement budget")
+    public void givenStatementsWithinBudget_whenFilter_thenStatsExposed() throws Exception{
+        //when
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> issueStatements(2));
+
+        //then
+        SqlStatementStats stats = (SqlStatementStats) request.getAttribute(SqlStatementStats.REQUEST_ATTRIBUTE);
+        assertThat(stats.getStatements()).isEqualTo(2);
+        assertThat(SqlStatementStats.current()).isNull();
+        assertThat(meterRegistry.get("http.server.requests.sql.statements")
+                .tag("endpoint", "EmployeeController.createEmployee").summary().totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Junit test for request exceeding its SQL statement budget")
+    public void givenStatementsOverBudget_whenFilter_thenThrowsException(){
+        //when
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
+                filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> issueStatements(3)));
+
+        //then
+        assertThat(exception.getMessage()).contains("issued 3 SQL statements");
+        assertThat(SqlStatementStats.current()).isNull();
+    }
+
+    private static void issueStatements(int count) {
+        StatementCountingInspector inspector = new StatementCountingInspector();
+        for (int i = 0; i < count; i++) {
+            inspector.inspect("insert into employees values (?)");
+        }
+    }
+}
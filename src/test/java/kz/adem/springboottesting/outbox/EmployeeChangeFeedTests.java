@@ -0,0 +1,99 @@
+package kz.adem.springboottesting.outbox;
+
+import kz.adem.springboottesting.config.EmployeeProperties;
+import kz.adem.springboottesting.dto.CursorPage;
+import kz.adem.springboottesting.model.EmployeeEvent;
+import kz.adem.springboottesting.repository.EmployeeEventRepository;
+import kz.adem.springboottesting.util.CursorCodec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeChangeFeedTests {
+    @Mock
+    private EmployeeEventRepository eventRepository;
+    private EmployeeChangeFeed changeFeed;
+
+    @BeforeEach
+    public void setup(){
+        EmployeeProperties employeeProperties = new EmployeeProperties();
+        //ticks are driven by the test
+        employeeProperties.getOutbox().setPollInterval(Duration.ofHours(1));
+        changeFeed = new EmployeeChangeFeed(eventRepository, employeeProperties);
+    }
+
+    @AfterEach
+    public void tearDown(){
+        changeFeed.destroy();
+    }
+
+    @Test
+    @DisplayName("Junit test for reading the change feed after a cursor")
+    public void givenEvents_whenRead_thenNextCursorIsLastEventId(){
+        //given
+        given(eventRepository.findByIdGreaterThanAndCreatedAtLessThanEqualOrderByIdAsc(eq(5L), any(), any()))
+                .willReturn(List.of(event(6L), event(9L)));
+
+        //when
+        CursorPage<EmployeeEvent> page = changeFeed.read(CursorCodec.encode(5L), null);
+
+        //then
+        assertThat(page.getContent()).extracting(EmployeeEvent::getId).containsExactly(6L, 9L);
+        assertThat(CursorCodec.decode(page.getNextCursor())).isEqualTo(9L);
+    }
+
+    @Test
+    @DisplayName("Junit test for a long-poll woken by a new event")
+    public void givenNoEvents_whenPollAndEventArrives_thenCompleteWaiter(){
+        //given
+        given(eventRepository.findByIdGreaterThanAndCreatedAtLessThanEqualOrderByIdAsc(eq(5L), any(), any()))
+                .willReturn(List.of())
+                .willReturn(List.of(event(6L)));
+        DeferredResult<CursorPage<EmployeeEvent>> result = changeFeed.poll(CursorCodec.encode(5L), null, Duration.ofSeconds(30));
+        assertThat(result.hasResult()).isFalse();
+        given(eventRepository.existsByIdGreaterThanAndCreatedAtLessThanEqual(eq(5L), any())).willReturn(true);
+
+        //when
+        changeFeed.wakeWaiters();
+
+        //then
+        assertThat(result.hasResult()).isTrue();
+        @SuppressWarnings("unchecked")
+        CursorPage<EmployeeEvent> page = (CursorPage<EmployeeEvent>) result.getResult();
+        assertThat(page.getContent()).extracting(EmployeeEvent::getId).containsExactly(6L);
+    }
+
+    @Test
+    @DisplayName("Junit test for a long-poll without new events")
+    public void givenNoSettledEvents_whenWakeWaiters_thenKeepWaiting(){
+        //given
+        given(eventRepository.findByIdGreaterThanAndCreatedAtLessThanEqualOrderByIdAsc(eq(0L), any(), any()))
+                .willReturn(List.of());
+        DeferredResult<CursorPage<EmployeeEvent>> result = changeFeed.poll(null, null, Duration.ofSeconds(30));
+        given(eventRepository.existsByIdGreaterThanAndCreatedAtLessThanEqual(eq(0L), any())).willReturn(false);
+
+        //when
+        changeFeed.wakeWaiters();
+
+        //then
+        assertThat(result.hasResult()).isFalse();
+    }
+
+    private static EmployeeEvent event(Long id) {
+        return EmployeeEvent.builder().id(id).type(EmployeeEvent.Type.CREATED).employeeId(1L).build();
+    }
+}
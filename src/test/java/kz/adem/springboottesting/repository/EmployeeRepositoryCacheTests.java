@@ -0,0 +1,126 @@
+package kz.adem.springboottesting.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import kz.adem.springboottesting.config.HibernateCacheConfig;
+import kz.adem.springboottesting.model.Employee;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//second-level and query cache tests with H2 database, every repository call commits on its own
+@DataJpaTest
+@Import(HibernateCacheConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class EmployeeRepositoryCacheTests {
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    private Statistics statistics;
+    private Employee employee;
+
+    @BeforeEach
+    public void setup(){
+        employee = employeeRepository.save(Employee.builder()
+                .firstName("Adem")
+                .lastName("Shanghai")
+                .email("adem@gmail.com")
+                .build());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void tearDown(){
+        employeeRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Junit test for repeated JPQL name lookup served by the query cache")
+    public void givenRepeatedLookup_whenFindByJPQL_thenSecondLookupHitsQueryCache(){
+        //given
+        employeeRepository.findByJPQL("Adem", "Shanghai");
+
+        //when
+        Employee cachedEmployee = employeeRepository.findByJPQL("Adem", "Shanghai");
+
+        //then
+        assertThat(cachedEmployee.getId()).isEqualTo(employee.getId());
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Junit test for repeated native name lookup served by the query cache")
+    public void givenRepeatedLookup_whenFindByNativeSQLNamed_thenSecondLookupHitsQueryCache(){
+        //given
+        employeeRepository.findByNativeSQLNamed("Adem", "Shanghai");
+
+        //when
+        Employee cachedEmployee = employeeRepository.findByNativeSQLNamed("Adem", "Shanghai");
+
+        //then
+        assertThat(cachedEmployee.getId()).isEqualTo(employee.getId());
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Junit test for name lookup after the employee was renamed")
+    public void givenRenamedEmployee_whenFindByJPQLNamedParams_thenCachedResultIsInvalidated(){
+        //given
+        employeeRepository.findByJPQLNamedParams("Adem", "Shanghai");
+        employee.setFirstName("Renamed");
+        employeeRepository.save(employee);
+
+        //when
+        Employee staleLookup = employeeRepository.findByJPQLNamedParams("Adem", "Shanghai");
+        Employee renamedLookup = employeeRepository.findByJPQLNamedParams("Renamed", "Shanghai");
+
+        //then
+        assertThat(staleLookup).isNull();
+        assertThat(renamedLookup.getFirstName()).isEqualTo("Renamed");
+    }
+
+    @Test
+    @DisplayName("Junit test for native name lookups after the employee was renamed")
+    public void givenRenamedEmployee_whenFindByNativeSQL_thenCachedResultIsInvalidated(){
+        //given
+        employeeRepository.findByNativeSQL("Adem", "Shanghai");
+        employeeRepository.findByNativeSQLNamed("Adem", "Shanghai");
+        employee.setFirstName("Renamed");
+        employeeRepository.save(employee);
+
+        //when
+        Employee staleLookup = employeeRepository.findByNativeSQL("Adem", "Shanghai");
+        Employee staleNamedLookup = employeeRepository.findByNativeSQLNamed("Adem", "Shanghai");
+
+        //then
+        assertThat(staleLookup).isNull();
+        assertThat(staleNamedLookup).isNull();
+    }
+
+    @Test
+    @DisplayName("Junit test for native name lookup after the employee was deleted")
+    public void givenDeletedEmployee_whenFindByNativeSQLNamed_thenCachedResultIsInvalidated(){
+        //given
+        employeeRepository.findByNativeSQLNamed("Adem", "Shanghai");
+        employeeRepository.deleteEmployeeById(employee.getId(), null, Employee.currentTimestamp());
+
+        //when
+        Employee staleLookup = employeeRepository.findByNativeSQLNamed("Adem", "Shanghai");
+
+        //then
+        assertThat(staleLookup).isNull();
+    }
+}
@@ -1,5 +1,6 @@
 package kz.adem.springboottesting.repository;
 
+import kz.adem.springboottesting.dto.EmployeeView;
 import kz.adem.springboottesting.model.Employee;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -7,8 +8,10 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 //Repository tests with H2 database
@@ -176,4 +179,40 @@ public class EmployeeRepositoryTests {
         assertThat(savedEmployee).isNotNull();
     }
 
+    @Test
+    @DisplayName("Junit test for employee view projections")
+    public void givenEmployees_whenFindViews_thenReturnProjectionsOfLiveEmployees(){
+        //given
+        Employee employee1 = Employee.builder()
+                .firstName("Tony")
+                .lastName("Stark")
+                .email("stark@gmail.com")
+                .build();
+        employeeRepository.saveAll(List.of(employee, employee1));
+        employeeRepository.deleteEmployeeById(employee1.getId(), null, Employee.currentTimestamp());
+
+        //when
+        List<EmployeeView> page = employeeRepository.findViewsByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 10));
+        List<EmployeeView> lookup = employeeRepository.findViewsByIdIn(List.of(employee.getId(), employee1.getId()));
+
+        //then
+        assertThat(page).extracting(EmployeeView::email).containsExactly("adem@gmail.com");
+        assertThat(lookup).extracting(EmployeeView::id).containsExactly(employee.getId());
+    }
+
+    @Test
+    @DisplayName("Junit test for selecting employee fields")
+    public void givenFields_whenFindFieldsByIdGreaterThan_thenReturnOnlyThoseFields(){
+        //given
+        employeeRepository.save(employee);
+
+        //when
+        List<Map<String, Object>> rows = employeeRepository.findFieldsByIdGreaterThan(0L, List.of("id", "email"), 10);
+
+        //then
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0)).containsOnlyKeys("id", "email")
+                .containsEntry("email", "adem@gmail.com");
+    }
+
 }
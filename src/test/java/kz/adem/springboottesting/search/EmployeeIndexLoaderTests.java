@@ -0,0 +1,61 @@
+package kz.adem.springboottesting.search;
+
+import kz.adem.springboottesting.config.EmployeeProperties;
+import kz.adem.springboottesting.dto.EmployeeSuggestion;
+import kz.adem.springboottesting.model.Employee;
+import kz.adem.springboottesting.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeIndexLoaderTests {
+    @Mock
+    private EmployeeService employeeService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private EmployeeSearchIndex searchIndex;
+    private EmployeeIndexLoader indexLoader;
+
+    @BeforeEach
+    public void setup(){
+        searchIndex = new EmployeeSearchIndex();
+        indexLoader = new EmployeeIndexLoader(employeeService, searchIndex,
+                new EmployeeEmailFilter(new EmployeeProperties()), transactionManager);
+    }
+
+    @Test
+    @DisplayName("Junit test for the startup load while employees are updated and deleted")
+    @SuppressWarnings("unchecked")
+    public void givenWritesDuringExport_whenRun_thenLoadedRowsDoNotOverrideThem(){
+        //given
+        //the export read both rows before the requests below committed and indexed their changes
+        given(employeeService.exportEmployees(any())).willAnswer(invocation -> {
+            searchIndex.index(Employee.builder().id(1L).firstName("Bruce").lastName("Banner").email("hulk@gmail.com").version(1L).build());
+            searchIndex.remove(2L);
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            consumer.accept(Employee.builder().id(1L).firstName("Robert").lastName("Banner").email("hulk@gmail.com").version(0L).build());
+            consumer.accept(Employee.builder().id(2L).firstName("Tony").lastName("Stark").email("stark@gmail.com").version(0L).build());
+            return 2L;
+        });
+
+        //when
+        indexLoader.run(new DefaultApplicationArguments());
+
+        //then
+        assertThat(searchIndex.search("banner", 10)).extracting(EmployeeSuggestion::getFirstName).containsExactly("Bruce");
+        assertThat(searchIndex.search("stark", 10)).isEmpty();
+        assertThat(searchIndex.size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,120 @@
+package kz.adem.springboottesting.search;
+
+import kz.adem.springboottesting.dto.EmployeeSuggestion;
+import kz.adem.springboottesting.model.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmployeeSearchIndexTests {
+    private EmployeeSearchIndex searchIndex;
+
+    @BeforeEach
+    public void setup(){
+        searchIndex = new EmployeeSearchIndex();
+        searchIndex.index(Employee.builder().id(1L).firstName("Adem").lastName("Shanghai").email("adem@gmail.com").build());
+        searchIndex.index(Employee.builder().id(2L).firstName("Tony").lastName("Stark").email("stark@gmail.com").build());
+        searchIndex.index(Employee.builder().id(3L).firstName("Steve").lastName("Rogers").email("cap@gmail.com").build());
+    }
+
+    @Test
+    @DisplayName("Junit test for case insensitive prefix search over all fields")
+    public void givenPrefix_whenSearch_thenReturnEmployeesMatchingAnyField(){
+        //when
+        List<EmployeeSuggestion> byFirstName = searchIndex.search("ADE", 10);
+        List<EmployeeSuggestion> byLastName = searchIndex.search("st", 10);
+        List<EmployeeSuggestion> byEmail = searchIndex.search("cap@", 10);
+
+        //then
+        assertThat(byFirstName).extracting(EmployeeSuggestion::getId).containsExactly(1L);
+        //Stark matches on last name and email but is returned once
+        assertThat(byLastName).extracting(EmployeeSuggestion::getId).containsExactly(2L, 3L);
+        assertThat(byEmail).extracting(EmployeeSuggestion::getId).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("Junit test for search limit")
+    public void givenLimit_whenSearch_thenReturnAtMostLimit(){
+        //when
+        List<EmployeeSuggestion> suggestions = searchIndex.search("s", 1);
+
+        //then
+        assertThat(suggestions).hasSize(1);
+        assertThat(searchIndex.search("", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Junit test for reindexing an updated employee")
+    public void givenUpdatedEmployee_whenIndex_thenOldTermsAreRemoved(){
+        //when
+        searchIndex.index(Employee.builder().id(1L).firstName("Ali").lastName("Shanghai").email("ali@gmail.com").build());
+
+        //then
+        assertThat(searchIndex.search("adem", 10)).isEmpty();
+        assertThat(searchIndex.search("ali", 10)).extracting(EmployeeSuggestion::getEmail).containsExactly("ali@gmail.com");
+        assertThat(searchIndex.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Junit test for removing an employee from the index")
+    public void givenRemovedEmployee_whenSearch_thenNotReturned(){
+        //when
+        searchIndex.remove(2L);
+
+        //then
+        assertThat(searchIndex.search("stark", 10)).isEmpty();
+        assertThat(searchIndex.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Junit test for indexing an older version after a newer one")
+    public void givenNewerVersionIndexed_whenIndexOlderVersion_thenOlderVersionIsIgnored(){
+        //given
+        searchIndex.index(Employee.builder().id(4L).firstName("Bruce").lastName("Banner").email("hulk@gmail.com").version(2L).build());
+
+        //when
+        searchIndex.index(Employee.builder().id(4L).firstName("Robert").lastName("Banner").email("hulk@gmail.com").version(1L).build());
+
+        //then
+        assertThat(searchIndex.search("robert", 10)).isEmpty();
+        assertThat(searchIndex.search("bruce", 10)).extracting(EmployeeSuggestion::getVersion).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("Junit test for the startup load reading a row that was updated meanwhile")
+    public void givenEmployeeUpdatedDuringLoad_whenLoadOlderRow_thenNewerEntryIsKept(){
+        //given
+        searchIndex.startLoad();
+        searchIndex.index(Employee.builder().id(4L).firstName("Bruce").lastName("Banner").email("hulk@gmail.com").version(1L).build());
+
+        //when
+        searchIndex.load(Employee.builder().id(4L).firstName("Robert").lastName("Banner").email("hulk@gmail.com").version(0L).build());
+        searchIndex.load(Employee.builder().id(5L).firstName("Natasha").lastName("Romanoff").email("widow@gmail.com").version(0L).build());
+        searchIndex.finishLoad();
+
+        //then
+        assertThat(searchIndex.search("robert", 10)).isEmpty();
+        assertThat(searchIndex.search("bruce", 10)).extracting(EmployeeSuggestion::getId).containsExactly(4L);
+        assertThat(searchIndex.search("natasha", 10)).extracting(EmployeeSuggestion::getId).containsExactly(5L);
+    }
+
+    @Test
+    @DisplayName("Junit test for the startup load reading a row that was deleted meanwhile")
+    public void givenEmployeeRemovedDuringLoad_whenLoadRow_thenEmployeeStaysRemoved(){
+        //given
+        searchIndex.startLoad();
+        searchIndex.remove(4L);
+
+        //when
+        searchIndex.load(Employee.builder().id(4L).firstName("Bruce").lastName("Banner").email("hulk@gmail.com").version(0L).build());
+        searchIndex.finishLoad();
+
+        //then
+        assertThat(searchIndex.search("bruce", 10)).isEmpty();
+        assertThat(searchIndex.size()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,185 @@
+package kz.adem.springboottesting.service;
+
+import kz.adem.springboottesting.config.CacheConfig;
+import kz.adem.springboottesting.config.EmployeeProperties;
+import kz.adem.springboottesting.model.Employee;
+import kz.adem.springboottesting.repository.EmployeeEventRepository;
+import kz.adem.springboottesting.repository.EmployeeRepository;
+import kz.adem.springboottesting.search.EmployeeEmailFilter;
+import kz.adem.springboottesting.search.EmployeeSearchIndex;
+import kz.adem.springboottesting.service.impl.EmployeeServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+//Service tests running through the caching proxy, the repository is mocked
+@SpringJUnitConfig(EmployeeServiceCacheTests.TestConfig.class)
+public class EmployeeServiceCacheTests {
+    @Configuration
+    @EnableConfigurationProperties(EmployeeProperties.class)
+    @Import({CacheConfig.class, EmployeeServiceImpl.class, EmployeeSearchIndex.class, EmployeeEmailFilter.class})
+    static class TestConfig {
+    }
+
+    @MockBean
+    private EmployeeRepository employeeRepository;
+    @MockBean
+    private EmployeeEventRepository eventRepository;
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private CacheManager cacheManager;
+    private Employee employee;
+
+    @BeforeEach
+    public void setup(){
+        cacheManager.getCache(CacheConfig.EMPLOYEES_BY_ID).clear();
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Adem")
+                .lastName("Shanghai")
+                .email("adem@gmail.com")
+                .build();
+    }
+
+    @Test
+    @DisplayName("Junit test for getEmployeeById served from cache")
+    public void givenCachedEmployee_whenGetEmployeeByIdTwice_thenQueryRepositoryOnce(){
+        //given
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+
+        //when
+        employeeService.getEmployeeById(1L);
+        Optional<Employee> cachedEmployee = employeeService.getEmployeeById(1L);
+
+        //then
+        assertThat(cachedEmployee).contains(employee);
+        verify(employeeRepository,times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Junit test for concurrent getEmployeeById misses sharing one load")
+    public void givenConcurrentMisses_whenGetEmployeeById_thenQueryRepositoryOnce() throws Exception{
+        //given
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(employeeRepository.findById(1L)).willAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(employee);
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        //when
+        List<Future<Optional<Employee>>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> employeeService.getEmployeeById(1L)));
+        }
+        loading.await(5, TimeUnit.SECONDS);
+        Thread.sleep(100);
+        release.countDown();
+
+        //then
+        for (Future<Optional<Employee>> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).contains(employee);
+        }
+        executor.shutdown();
+        verify(employeeRepository,times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Junit test for getEmployeeById caching missing ids")
+    public void givenMissingId_whenGetEmployeeByIdTwice_thenQueryRepositoryOnce(){
+        //given
+        given(employeeRepository.findById(2L)).willReturn(Optional.empty());
+
+        //when
+        employeeService.getEmployeeById(2L);
+        Optional<Employee> cachedEmployee = employeeService.getEmployeeById(2L);
+
+        //then
+        assertThat(cachedEmployee).isEmpty();
+        verify(employeeRepository,times(1)).findById(2L);
+    }
+
+    @Test
+    @DisplayName("Junit test for saveEmployees replacing cached missing ids")
+    public void givenCachedMissingId_whenSaveEmployees_thenLookupReturnsSavedEmployee(){
+        //given
+        given(employeeRepository.findById(1L)).willReturn(Optional.empty());
+        employeeService.getEmployeeById(1L);
+        //ids are generated on insert
+        given(employeeRepository.saveAll(anyList())).willAnswer(invocation -> {
+            List<Employee> chunk = invocation.getArgument(0);
+            chunk.forEach(savedEmployee -> savedEmployee.setId(1L));
+            return chunk;
+        });
+
+        //when
+        employeeService.saveEmployees(List.of(employee));
+
+        //then
+        assertThat(employeeService.getEmployeeById(1L)).contains(employee);
+        verify(employeeRepository,times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Junit test for deleteEmployee evicting the cache entry")
+    public void givenCachedEmployee_whenDeleteEmployee_thenNextLookupHitsRepository(){
+        //given
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        employeeService.getEmployeeById(1L);
+
+        //when
+        employeeService.deleteEmployee(1L, null);
+        given(employeeRepository.findById(1L)).willReturn(Optional.empty());
+
+        //then
+        assertThat(employeeService.getEmployeeById(1L)).isEmpty();
+        verify(employeeRepository,times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Junit test for updateEmployee refreshing the cache entry")
+    public void givenCachedEmployee_whenUpdateEmployee_thenLookupReturnsUpdatedEmployee(){
+        //given
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        employeeService.getEmployeeById(1L);
+        Employee updatedEmployee = Employee.builder()
+                .id(1L)
+                .firstName("Updated")
+                .lastName("Shanghai")
+                .email("adem@gmail.com")
+                .build();
+        given(employeeRepository.save(updatedEmployee)).willReturn(updatedEmployee);
+
+        //when
+        employeeService.updateEmployee(updatedEmployee);
+
+        //then
+        assertThat(employeeService.getEmployeeById(1L)).contains(updatedEmployee);
+        verify(employeeRepository,times(1)).findById(1L);
+    }
+}
@@ -1,8 +1,24 @@
 package kz.adem.springboottesting.service;
 
-import kz.adem.springboottesting.exception.ResourceNotFoundException;
+import kz.adem.springboottesting.config.EmployeeProperties;
+import kz.adem.springboottesting.dto.CursorPage;
+import kz.adem.springboottesting.dto.EmployeeChanges;
+import kz.adem.springboottesting.dto.EmployeeLookupResult;
+import kz.adem.springboottesting.dto.EmployeePatch;
+import kz.adem.springboottesting.dto.EmployeeSuggestion;
+import kz.adem.springboottesting.dto.EmployeeView;
+import kz.adem.springboottesting.exception.InvalidCursorException;
+import kz.adem.springboottesting.exception.InvalidEmployeeException;
+import kz.adem.springboottesting.exception.InvalidFieldException;
+import kz.adem.springboottesting.exception.PayloadTooLargeException;
+import kz.adem.springboottesting.exception.PreconditionFailedException;
+import kz.adem.springboottesting.exception.ResourceAlreadyExistsException;
 import kz.adem.springboottesting.model.Employee;
+import kz.adem.springboottesting.model.EmployeeEvent;
+import kz.adem.springboottesting.repository.EmployeeEventRepository;
 import kz.adem.springboottesting.repository.EmployeeRepository;
+import kz.adem.springboottesting.search.EmployeeEmailFilter;
+import kz.adem.springboottesting.search.EmployeeSearchIndex;
 import kz.adem.springboottesting.service.impl.EmployeeServiceImpl;
 import lombok.AllArgsConstructor;
 import org.assertj.core.api.Assertions;
@@ -19,20 +35,50 @@ import static org.mockito.BDDMockito.willDoNothing;
 import static org.mockito.Mockito.*;
 
 import org.mockito.InjectMocks;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 @ExtendWith(MockitoExtension.class)
 public class EmployeeServiceTests {
     @Mock
     private  EmployeeRepository employeeRepository;
+    @Mock
+    private EmployeeEventRepository eventRepository;
+    @Spy
+    private EmployeeProperties employeeProperties = new EmployeeProperties();
+    @Spy
+    private EmployeeSearchIndex searchIndex = new EmployeeSearchIndex();
+    @Spy
+    private EmployeeEmailFilter emailFilter = new EmployeeEmailFilter(new EmployeeProperties());
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager();
     @InjectMocks
     private  EmployeeServiceImpl employeeService;
     private Employee employee;
+    private final AtomicLong nextId = new AtomicLong();
+
+    //the ids the database would generate, the saved employees are cached by id
+    private List<Employee> saveAllWithGeneratedIds(InvocationOnMock invocation) {
+        List<Employee> employees = invocation.getArgument(0);
+        employees.forEach(savedEmployee -> savedEmployee.setId(nextId.incrementAndGet()));
+        return employees;
+    }
 
     @BeforeEach
     public void setup(){
@@ -48,29 +94,88 @@ public class EmployeeServiceTests {
     @DisplayName("Junit test for saveEmployee method")
     public void givenEmployeeObject_whenSaveEmployee_thenReturnEmployeeObject(){
     //given
-        given(employeeRepository.findEmployeeByEmail(employee.getEmail()))
-                .willReturn(Optional.empty());
-        given(employeeRepository.save(employee)).willReturn(employee);
+        given(employeeRepository.saveAndFlush(employee)).willReturn(employee);
     //when
         Employee savedEmployee = employeeService.saveEmployee(employee);
     //then
         assertThat(savedEmployee).isNotNull();
         assertThat(savedEmployee.getFirstName()).isEqualTo("Adem");
+        verify(employeeRepository,never()).findEmployeeByEmail(any());
 
     }
     @Test
     @DisplayName("Junit test for saveEmployee method which throws exception")
     public void givenExistingEmail_whenSaveEmployee_thenThrowException(){
         //given
-        given(employeeRepository.findEmployeeByEmail(employee.getEmail()))
-                .willReturn(Optional.of(employee));
+        given(employeeRepository.saveAndFlush(employee))
+                .willThrow(new DataIntegrityViolationException("could not execute statement",
+                        new ConstraintViolationException("Duplicate entry", null, "employees.uk_employees_email")));
         //when
-        org.junit.jupiter.api.Assertions.assertThrows(ResourceNotFoundException.class,()->{
+        org.junit.jupiter.api.Assertions.assertThrows(ResourceAlreadyExistsException.class,()->{
             employeeService.saveEmployee(employee);
         });
         //then
-        verify(employeeRepository,never()).save(any(Employee.class));
+        verify(employeeRepository,times(1)).saveAndFlush(employee);
+
+    }
+
+    @Test
+    @DisplayName("Junit test for saveEmployees method")
+    public void givenEmployeesList_whenSaveEmployees_thenSaveInBatches(){
+        //given
+        employeeProperties.getBatch().setSize(1);
+        Employee employee1 = Employee.builder()
+                .firstName("Tony")
+                .lastName("Stark")
+                .email("stark@gmail.com")
+                .build();
+        given(employeeRepository.findExistingEmails(any())).willReturn(Collections.emptyList());
+        given(employeeRepository.saveAll(any())).willAnswer(this::saveAllWithGeneratedIds);
+
+        //when
+        List<Employee> savedEmployees = employeeService.saveEmployees(new ArrayList<>(List.of(employee,employee1)));
+
+        //then
+        assertThat(savedEmployees).containsExactly(employee,employee1);
+        verify(employeeRepository,times(1)).findExistingEmails(any());
+        verify(employeeRepository,times(2)).saveAll(any());
+        verify(employeeRepository,times(2)).flushAndClear();
+    }
+
+    @Test
+    @DisplayName("Junit test for saveEmployees method which throws exception")
+    public void givenExistingEmail_whenSaveEmployees_thenThrowException(){
+        //given
+        given(employeeRepository.findExistingEmails(any())).willReturn(List.of(employee.getEmail()));
+
+        //when
+        org.junit.jupiter.api.Assertions.assertThrows(ResourceAlreadyExistsException.class,()->{
+            employeeService.saveEmployees(List.of(employee));
+        });
+
+        //then
+        verify(employeeRepository,never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Junit test for saveEmployees method with more employees than one call takes")
+    public void givenTooManyEmployees_whenSaveEmployees_thenThrowException(){
+        //given
+        employeeProperties.getBatch().setMaxRows(1);
+        Employee employee1 = Employee.builder()
+                .firstName("Tony")
+                .lastName("Stark")
+                .email("stark@gmail.com")
+                .build();
 
+        //when
+        org.junit.jupiter.api.Assertions.assertThrows(PayloadTooLargeException.class,()->{
+            employeeService.saveEmployees(List.of(employee,employee1));
+        });
+
+        //then
+        verify(employeeRepository,never()).findExistingEmails(any());
+        verify(employeeRepository,never()).saveAll(any());
     }
 
     @Test
@@ -115,6 +220,96 @@ public class EmployeeServiceTests {
         assertThat(employees.size()).isEqualTo(0);
     }
 
+    @Test
+    @DisplayName("Junit test for getEmployeesPage method")
+    public void givenMoreEmployeesThanLimit_whenGetEmployeesPage_thenReturnPageWithNextCursor(){
+        //given
+        Employee employee1 = Employee.builder()
+                .id(2L)
+                .firstName("Tony")
+                .lastName("Stark")
+                .email("stark@gmail.com")
+                .build();
+        given(employeeRepository.findViewsByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 2)))
+                .willReturn(List.of(EmployeeView.from(employee),EmployeeView.from(employee1)));
+
+        //when
+        CursorPage<EmployeeView> page = employeeService.getEmployeesPage(null, 1);
+
+        //then
+        assertThat(page.getContent()).containsExactly(EmployeeView.from(employee));
+        assertThat(page.getNextCursor()).isNotNull();
+
+        //when - the cursor is fed back
+        given(employeeRepository.findViewsByIdGreaterThanOrderByIdAsc(1L, PageRequest.of(0, 2)))
+                .willReturn(List.of(EmployeeView.from(employee1)));
+        CursorPage<EmployeeView> nextPage = employeeService.getEmployeesPage(page.getNextCursor(), 1);
+
+        //then
+        assertThat(nextPage.getContent()).containsExactly(EmployeeView.from(employee1));
+        assertThat(nextPage.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Junit test for getEmployeesPage method clamps limit to max page size")
+    public void givenLimitAboveMax_whenGetEmployeesPage_thenClampToMaxSize(){
+        //given
+        employeeProperties.getPage().setMaxSize(10);
+        given(employeeRepository.findViewsByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 11)))
+                .willReturn(List.of(EmployeeView.from(employee)));
+
+        //when
+        CursorPage<EmployeeView> page = employeeService.getEmployeesPage(null, 1_000_000);
+
+        //then
+        assertThat(page.getContent()).hasSize(1);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Junit test for exportEmployees method")
+    public void givenEmployeeStream_whenExportEmployees_thenPassEveryEmployeeToConsumer(){
+        //given
+        Employee employee1 = Employee.builder()
+                .id(2L)
+                .firstName("Tony")
+                .lastName("Stark")
+                .email("stark@gmail.com")
+                .build();
+        given(employeeRepository.streamAll(employeeProperties.getExport().getFetchSize()))
+                .willReturn(Stream.of(employee,employee1));
+        List<Employee> exported = new ArrayList<>();
+
+        //when
+        long count = employeeService.exportEmployees(exported::add);
+
+        //then
+        assertThat(count).isEqualTo(2);
+        assertThat(exported).containsExactly(employee,employee1);
+    }
+
+    @Test
+    @DisplayName("Junit test for getEmployeesByIds method")
+    public void givenIds_whenGetEmployeesByIds_thenReturnEmployeesInRequestOrderAndMissingIds(){
+        //given
+        employeeProperties.getBatch().setInClauseSize(2);
+        Employee employee1 = Employee.builder()
+                .id(2L)
+                .firstName("Tony")
+                .lastName("Stark")
+                .email("stark@gmail.com")
+                .build();
+        given(employeeRepository.findViewsByIdIn(List.of(2L,3L))).willReturn(List.of(EmployeeView.from(employee1)));
+        given(employeeRepository.findViewsByIdIn(List.of(1L))).willReturn(List.of(EmployeeView.from(employee)));
+
+        //when
+        EmployeeLookupResult result = employeeService.getEmployeesByIds(List.of(2L,3L,1L,2L));
+
+        //then
+        assertThat(result.getEmployees()).containsExactly(EmployeeView.from(employee1),EmployeeView.from(employee));
+        assertThat(result.getMissingIds()).containsExactly(3L);
+    }
+
     @Test
     @DisplayName("Junit test for getEmployeeById method")
     public void givenEmployeeId_whenFindById_thenReturnEmployeeObject(){
@@ -159,17 +354,311 @@ public class EmployeeServiceTests {
         assertThat(updatedEmployee.getFirstName()).isEqualTo("Ad");
     }
 
+    @Test
+    @DisplayName("Junit test for UPDATE employee by id method")
+    public void givenEmployeeIdAndObject_whenUpdateEmpById_thenRunSingleUpdate(){
+    //given
+        given(employeeRepository.updateEmployeeById(eq(1L), eq("Ad"), eq("Shanghai"), eq("ad@gmail.com"), isNull(), any(Instant.class))).willReturn(1);
+        Employee changes = Employee.builder()
+                .firstName("Ad")
+                .lastName("Shanghai")
+                .email("ad@gmail.com")
+                .build();
+    //when
+        Optional<Employee> updatedEmployee = employeeService.updateEmployee(1L, changes, null);
+
+    //then
+        assertThat(updatedEmployee).isPresent();
+        assertThat(updatedEmployee.get().getId()).isEqualTo(1L);
+        assertThat(updatedEmployee.get().getFirstName()).isEqualTo("Ad");
+        verify(employeeRepository,never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Junit test for UPDATE employee by id method in negative scenario")
+    public void givenEmployeeIdNoExists_whenUpdateEmpById_thenReturnEmpty(){
+    //given
+        given(employeeRepository.updateEmployeeById(eq(1L), eq("Adem"), eq("Shanghai"), eq("adem@gmail.com"), isNull(), any(Instant.class))).willReturn(0);
+    //when
+        Optional<Employee> updatedEmployee = employeeService.updateEmployee(1L, employee, null);
+
+    //then
+        assertThat(updatedEmployee).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Junit test for conditional UPDATE employee method")
+    public void givenMatchingVersion_whenUpdateEmpById_thenReturnNextVersion(){
+    //given
+        given(employeeRepository.updateEmployeeById(eq(1L), eq("Adem"), eq("Shanghai"), eq("adem@gmail.com"), eq(3L), any(Instant.class))).willReturn(1);
+    //when
+        Optional<Employee> updatedEmployee = employeeService.updateEmployee(1L, employee, 3L);
+
+    //then
+        assertThat(updatedEmployee).isPresent();
+        assertThat(updatedEmployee.get().getVersion()).isEqualTo(4L);
+    }
+
+    @Test
+    @DisplayName("Junit test for conditional UPDATE employee method with stale version")
+    public void givenStaleVersion_whenUpdateEmpById_thenThrowException(){
+    //given
+        given(employeeRepository.updateEmployeeById(eq(1L), eq("Adem"), eq("Shanghai"), eq("adem@gmail.com"), eq(3L), any(Instant.class))).willReturn(0);
+        given(employeeRepository.existsById(1L)).willReturn(true);
+    //when
+        org.junit.jupiter.api.Assertions.assertThrows(PreconditionFailedException.class,()->{
+            employeeService.updateEmployee(1L, employee, 3L);
+        });
+    }
+
+    @Test
+    @DisplayName("Junit test for PATCH employee method")
+    public void givenChangedField_whenPatchEmployee_thenApplyOnlyThatField(){
+    //given
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+    //when
+        Optional<Employee> patchedEmployee = employeeService.patchEmployee(1L, EmployeePatch.builder().lastName("Stark").build());
+
+    //then
+        assertThat(patchedEmployee).isPresent();
+        assertThat(patchedEmployee.get().getLastName()).isEqualTo("Stark");
+        assertThat(patchedEmployee.get().getFirstName()).isEqualTo("Adem");
+        verify(employeeRepository,times(1)).flush();
+    }
+
+    @Test
+    @DisplayName("Junit test for PATCH employee method with no changes")
+    public void givenUnchangedFields_whenPatchEmployee_thenSkipWrite(){
+    //given
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+    //when
+        Optional<Employee> patchedEmployee = employeeService.patchEmployee(1L,
+                EmployeePatch.builder().firstName("Adem").email("adem@gmail.com").build());
+
+    //then
+        assertThat(patchedEmployee).contains(employee);
+        verify(employeeRepository,never()).flush();
+        verify(employeeRepository,never()).save(any(Employee.class));
+    }
+
     @Test
     @DisplayName("Junit test for delete employee method")
     public void givenEmployeeId_whenDeleteEmployee_thenNothing(){
     //given
         Long employeeId = 1L;
-        willDoNothing().given(employeeRepository).deleteById(employeeId);
+        given(employeeRepository.deleteEmployeeById(eq(employeeId), isNull(), any(Instant.class))).willReturn(1);
+
+    //when
+        boolean deleted = employeeService.deleteEmployee(employeeId, null);
+    //then
+        assertThat(deleted).isTrue();
+        verify(employeeRepository,times(1)).deleteEmployeeById(eq(employeeId), isNull(), any(Instant.class));
+        verify(employeeRepository,never()).deleteById(employeeId);
+    }
+
+    @Test
+    @DisplayName("Junit test for searchEmployees method")
+    public void givenSavedEmployee_whenSearchEmployees_thenReturnFromIndex(){
+    //given
+        given(employeeRepository.saveAndFlush(employee)).willAnswer(invocation -> {
+            Employee saved = invocation.getArgument(0);
+            saved.setId(1L);
+            return saved;
+        });
+        employeeService.saveEmployee(employee);
+
+    //when
+        List<EmployeeSuggestion> suggestions = employeeService.searchEmployees("Shang", null);
+
+    //then
+        assertThat(suggestions).extracting(EmployeeSuggestion::getId).containsExactly(1L);
+        verify(employeeRepository,times(1)).saveAndFlush(employee);
+        verifyNoMoreInteractions(employeeRepository);
+    }
+
+    @Test
+    @DisplayName("Junit test for searchEmployees method after delete")
+    public void givenDeletedEmployee_whenSearchEmployees_thenReturnEmptyList(){
+    //given
+        searchIndex.index(employee);
+        given(employeeRepository.deleteEmployeeById(eq(1L), isNull(), any(Instant.class))).willReturn(1);
+        employeeService.deleteEmployee(1L, null);
+
+    //when
+        List<EmployeeSuggestion> suggestions = employeeService.searchEmployees("adem", null);
+
+    //then
+        assertThat(suggestions).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Junit test for searchEmployees method with a too large limit")
+    public void givenLimitAboveMax_whenSearchEmployees_thenClampToMaxLimit(){
+    //given
+        employeeProperties.getSearch().setMaxLimit(2);
+        for (long id = 1; id <= 5; id++) {
+            searchIndex.index(Employee.builder().id(id).firstName("Tony").lastName("Stark"+id)
+                    .email("tony"+id+"@gmail.com").build());
+        }
+
+    //when
+        List<EmployeeSuggestion> suggestions = employeeService.searchEmployees("tony", 1000);
+
+    //then
+        assertThat(suggestions).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Junit test for saveEmployees method with emails unknown to the email filter")
+    public void givenNewEmails_whenSaveEmployees_thenSkipExistenceQuery(){
+    //given
+        emailFilter.markLoaded();
+        Employee employee1 = Employee.builder()
+                .firstName("Tony")
+                .lastName("Stark")
+                .email("stark@gmail.com")
+                .build();
+        given(employeeRepository.saveAll(any())).willAnswer(this::saveAllWithGeneratedIds);
 
     //when
-        employeeService.deleteEmployee(employeeId);
+        employeeService.saveEmployees(List.of(employee, employee1));
+
+    //then
+        verify(employeeRepository,never()).findExistingEmails(any());
+        assertThat(emailFilter.mightExist("STARK@gmail.com")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Junit test for saveEmployees method with an email known to the email filter")
+    public void givenKnownEmail_whenSaveEmployees_thenQueryOnlyThatEmail(){
+    //given
+        emailFilter.markLoaded();
+        emailFilter.add("adem@gmail.com");
+        Employee employee1 = Employee.builder()
+                .firstName("Tony")
+                .lastName("Stark")
+                .email("stark@gmail.com")
+                .build();
+        given(employeeRepository.findExistingEmails(List.of("adem@gmail.com"))).willReturn(List.of("adem@gmail.com"));
+
+    //when
+        org.junit.jupiter.api.Assertions.assertThrows(ResourceAlreadyExistsException.class,
+                () -> employeeService.saveEmployees(List.of(employee, employee1)));
+
+    //then
+        verify(employeeRepository,times(1)).findExistingEmails(List.of("adem@gmail.com"));
+        verify(employeeRepository,never()).saveAll(any());
+        assertThat(emailFilter.getFalsePositiveRate()).isZero();
+    }
+
+    @Test
+    @DisplayName("Junit test for outbox events recorded by writes")
+    public void givenWrites_whenSaveAndDeleteEmployee_thenRecordOutboxEvents(){
+    //given
+        given(employeeRepository.saveAndFlush(employee)).willAnswer(invocation -> {
+            Employee saved = invocation.getArgument(0);
+            saved.setId(1L);
+            return saved;
+        });
+        given(employeeRepository.deleteEmployeeById(eq(1L), isNull(), any(Instant.class))).willReturn(1);
+
+    //when
+        employeeService.saveEmployee(employee);
+        employeeService.deleteEmployee(1L, null);
+
+    //then
+        verify(eventRepository,times(1)).save(argThat(event ->
+                event.getType() == EmployeeEvent.Type.CREATED && event.getEmail().equals("adem@gmail.com")));
+        verify(eventRepository,times(1)).save(argThat(event ->
+                event.getType() == EmployeeEvent.Type.DELETED && event.getEmployeeId().equals(1L)));
+    }
+
+    @Test
+    @DisplayName("Junit test for getChanges method")
+    public void givenUpsertsAndTombstones_whenGetChanges_thenSplitThemAndReturnNextToken(){
+    //given
+        Instant updatedAt = Instant.parse("2024-01-01T10:00:00.123456Z");
+        employee.setActive(true);
+        employee.setUpdatedAt(updatedAt);
+        Employee deleted = Employee.builder()
+                .id(2L)
+                .email("stark@gmail.com")
+                .updatedAt(updatedAt)
+                .build();
+        Employee next = Employee.builder()
+                .id(3L)
+                .active(true)
+                .updatedAt(updatedAt.plusSeconds(1))
+                .build();
+        given(employeeRepository.findChanges(eq(Instant.EPOCH), eq(0L), any(Instant.class), eq(3)))
+                .willReturn(List.of(employee, deleted, next));
+
+    //when
+        EmployeeChanges changes = employeeService.getChanges(null, 2);
+
+    //then
+        assertThat(changes.getUpserts()).containsExactly(employee);
+        assertThat(changes.getDeletions()).containsExactly(2L);
+        assertThat(changes.isHasMore()).isTrue();
+
+    //when - the token is fed back
+        given(employeeRepository.findChanges(eq(updatedAt), eq(2L), any(Instant.class), eq(3)))
+                .willReturn(List.of(next));
+        EmployeeChanges nextChanges = employeeService.getChanges(changes.getNextToken(), 2);
+
+    //then
+        assertThat(nextChanges.getUpserts()).containsExactly(next);
+        assertThat(nextChanges.isHasMore()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Junit test for getChanges method without new changes")
+    public void givenNoNewChanges_whenGetChanges_thenReturnSameToken(){
+    //given
+        String token = employeeService.getChanges(null, null).getNextToken();
+
+    //when
+        EmployeeChanges changes = employeeService.getChanges(token, null);
+
+    //then
+        assertThat(changes.getUpserts()).isEmpty();
+        assertThat(changes.getDeletions()).isEmpty();
+        assertThat(changes.getNextToken()).isEqualTo(token);
+        org.junit.jupiter.api.Assertions.assertThrows(InvalidCursorException.class,
+                () -> employeeService.getChanges("not-a-token", null));
+    }
+
+    @Test
+    @DisplayName("Junit test for getEmployeeFieldsPage method")
+    public void givenFields_whenGetEmployeeFieldsPage_thenSelectIdAndKnownFieldsOnly(){
+    //given
+        given(employeeRepository.findFieldsByIdGreaterThan(0L, List.of("id", "email"), 51))
+                .willReturn(List.of(Map.of("id", 1L, "email", "adem@gmail.com")));
+
+    //when
+        CursorPage<Map<String, Object>> page = employeeService.getEmployeeFieldsPage(List.of("email", " "), null, null);
+
+    //then
+        assertThat(page.getContent()).hasSize(1);
+        assertThat(page.getNextCursor()).isNull();
+        org.junit.jupiter.api.Assertions.assertThrows(InvalidFieldException.class,
+                () -> employeeService.getEmployeeFieldsPage(List.of("active"), null, null));
+    }
+
+    @Test
+    @DisplayName("Junit test for saveEmployee method with a violation other than the email index")
+    public void givenNotNullViolation_whenSaveEmployee_thenThrowInvalidEmployeeException(){
+    //given
+        given(employeeRepository.saveAndFlush(employee))
+                .willThrow(new DataIntegrityViolationException("could not execute statement",
+                        new ConstraintViolationException("Column 'first_name' cannot be null", null, null)));
+
+    //when
+        org.junit.jupiter.api.Assertions.assertThrows(InvalidEmployeeException.class,
+                () -> employeeService.saveEmployee(employee));
+
     //then
-        verify(employeeRepository,times(1)).deleteById(employeeId);
+        verify(eventRepository,never()).save(any());
     }
 
 }
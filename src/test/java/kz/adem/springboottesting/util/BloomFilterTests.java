@@ -0,0 +1,58 @@
+package kz.adem.springboottesting.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BloomFilterTests {
+
+    @Test
+    @DisplayName("Junit test for Bloom filter without false negatives")
+    public void givenAddedValues_whenMightContain_thenAlwaysTrue(){
+        //given
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+
+        //when
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("employee" + i + "@gmail.com");
+        }
+
+        //then
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("employee" + i + "@gmail.com")).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Junit test for Bloom filter false positive rate")
+    public void givenFullFilter_whenMightContainAbsentValues_thenRateNearTarget(){
+        //given
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("employee" + i + "@gmail.com");
+        }
+
+        //when
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("candidate" + i + "@gmail.com")) {
+                falsePositives++;
+            }
+        }
+
+        //then
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+        assertThat(filter.expectedFalsePositiveProbability()).isBetween(0.005, 0.02);
+        //about 9.6 bits per value at 1%
+        assertThat(filter.sizeInBytes()).isBetween(11_000L, 13_000L);
+    }
+
+    @Test
+    @DisplayName("Junit test for Bloom filter with invalid sizing")
+    public void givenInvalidProbability_whenCreate_thenThrowException(){
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+    }
+}
@@ -0,0 +1,205 @@
+package kz.adem.springboottesting.writebehind;
+
+import kz.adem.springboottesting.config.EmployeeProperties;
+import kz.adem.springboottesting.dto.WriteStatus;
+import kz.adem.springboottesting.exception.InvalidEmployeeException;
+import kz.adem.springboottesting.exception.ResourceAlreadyExistsException;
+import kz.adem.springboottesting.exception.ServiceUnavailableException;
+import kz.adem.springboottesting.exception.TooManyRequestsException;
+import kz.adem.springboottesting.model.Employee;
+import kz.adem.springboottesting.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeWriteBehindQueueTests {
+    @Mock
+    private EmployeeService employeeService;
+    private EmployeeProperties employeeProperties;
+    private EmployeeWriteBehindQueue writeBehindQueue;
+
+    @BeforeEach
+    public void setup(){
+        employeeProperties = new EmployeeProperties();
+        employeeProperties.getWriteBehind().setCapacity(2);
+        writeBehindQueue = new EmployeeWriteBehindQueue(employeeService, employeeProperties);
+    }
+
+    @Test
+    @DisplayName("Junit test for queued creates saved before shutdown completes")
+    public void givenQueuedEmployees_whenStop_thenDrainQueue() throws Exception{
+        //given
+        AtomicLong ids = new AtomicLong();
+        given(employeeService.saveEmployees(anyList())).willAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            employees.forEach(employee -> employee.setId(ids.incrementAndGet()));
+            return employees;
+        });
+        writeBehindQueue.start();
+        WriteStatus first = writeBehindQueue.enqueue(employee("adem@gmail.com"));
+        WriteStatus second = writeBehindQueue.enqueue(employee("tony@gmail.com"));
+        CountDownLatch stopped = new CountDownLatch(1);
+
+        //when
+        writeBehindQueue.stop(stopped::countDown);
+
+        //then
+        assertThat(stopped.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(first.getState()).isEqualTo(WriteStatus.State.PENDING);
+        assertThat(writeBehindQueue.getStatus(first.getTrackingId())).get()
+                .extracting(WriteStatus::getState, WriteStatus::getEmployeeId)
+                .containsExactly(WriteStatus.State.CREATED, 1L);
+        assertThat(writeBehindQueue.getStatus(second.getTrackingId())).get()
+                .extracting(WriteStatus::getEmployeeId).isEqualTo(2L);
+        assertThat(writeBehindQueue.getQueueSize()).isZero();
+        assertThrows(ServiceUnavailableException.class, () -> writeBehindQueue.enqueue(employee("steve@gmail.com")));
+    }
+
+    @Test
+    @DisplayName("Junit test for creates enqueued while the queue stops")
+    public void givenConcurrentEnqueues_whenStop_thenEveryAcceptedCreateIsSaved() throws Exception{
+        //given
+        employeeProperties.getWriteBehind().setCapacity(100_000);
+        writeBehindQueue = new EmployeeWriteBehindQueue(employeeService, employeeProperties);
+        AtomicLong ids = new AtomicLong();
+        given(employeeService.saveEmployees(anyList())).willAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            employees.forEach(employee -> employee.setId(ids.incrementAndGet()));
+            return employees;
+        });
+        writeBehindQueue.start();
+        List<String> accepted = new CopyOnWriteArrayList<>();
+        ExecutorService clients = Executors.newFixedThreadPool(4);
+        CountDownLatch enqueuing = new CountDownLatch(4);
+        for (int client = 0; client < 4; client++) {
+            int clientId = client;
+            clients.execute(() -> {
+                try {
+                    for (int i = 0; ; i++) {
+                        accepted.add(writeBehindQueue.enqueue(employee(clientId + "-" + i + "@gmail.com")).getTrackingId());
+                        if (i == 100) {
+                            enqueuing.countDown();
+                        }
+                    }
+                } catch (ServiceUnavailableException e) {
+                    //refused once the queue stopped accepting
+                }
+            });
+        }
+        assertThat(enqueuing.await(5, TimeUnit.SECONDS)).isTrue();
+        CountDownLatch stopped = new CountDownLatch(1);
+
+        //when
+        writeBehindQueue.stop(stopped::countDown);
+
+        //then
+        clients.shutdown();
+        assertThat(clients.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(stopped.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(accepted).allSatisfy(trackingId -> assertThat(writeBehindQueue.getStatus(trackingId)).get()
+                .extracting(WriteStatus::getState).isEqualTo(WriteStatus.State.CREATED));
+    }
+
+    @Test
+    @DisplayName("Junit test for the write-behind queue stopping after the web server")
+    public void givenWebServerLifecyclePhase_whenGetPhase_thenStopAfterWebServer(){
+        //then
+        //higher phases stop first, spring boot's WebServerStartStopLifecycle runs in Integer.MAX_VALUE - 2048
+        assertThat(writeBehindQueue.getPhase()).isLessThan(Integer.MAX_VALUE - 2048);
+    }
+
+    @Test
+    @DisplayName("Junit test for a full write-behind queue")
+    public void givenFullQueue_whenEnqueue_thenThrowTooManyRequests() throws Exception{
+        //given
+        CountDownLatch saving = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(employeeService.saveEmployees(anyList())).willAnswer(invocation -> {
+            saving.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return invocation.getArgument(0);
+        });
+        writeBehindQueue.start();
+        //the flusher takes the first create and blocks in the save, the next two fill the queue
+        writeBehindQueue.enqueue(employee("adem@gmail.com"));
+        assertThat(saving.await(5, TimeUnit.SECONDS)).isTrue();
+        writeBehindQueue.enqueue(employee("tony@gmail.com"));
+        writeBehindQueue.enqueue(employee("steve@gmail.com"));
+
+        //when
+        try {
+            assertThrows(TooManyRequestsException.class, () -> writeBehindQueue.enqueue(employee("bruce@gmail.com")));
+        } finally {
+            release.countDown();
+            writeBehindQueue.stop();
+        }
+
+        //then
+        assertThat(writeBehindQueue.getQueueSize()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Junit test for a batch with a taken email")
+    public void givenTakenEmailInBatch_whenFlush_thenOnlyThatCreateFails(){
+        //given
+        given(employeeService.saveEmployees(anyList()))
+                .willThrow(new ResourceAlreadyExistsException("Employee already exist with given email: adem@gmail.com"));
+        given(employeeService.saveEmployee(any(Employee.class))).willAnswer(invocation -> {
+            Employee employee = invocation.getArgument(0);
+            if (employee.getEmail().equals("adem@gmail.com")) {
+                throw new ResourceAlreadyExistsException("Employee already exist with given email: adem@gmail.com");
+            }
+            employee.setId(2L);
+            return employee;
+        });
+        EmployeeWriteBehindQueue.Pending taken = new EmployeeWriteBehindQueue.Pending("taken", employee("adem@gmail.com"));
+        EmployeeWriteBehindQueue.Pending fresh = new EmployeeWriteBehindQueue.Pending("fresh", employee("tony@gmail.com"));
+
+        //when
+        writeBehindQueue.flush(List.of(taken, fresh));
+
+        //then
+        assertThat(writeBehindQueue.getStatus("taken")).get()
+                .extracting(WriteStatus::getState).isEqualTo(WriteStatus.State.FAILED);
+        assertThat(writeBehindQueue.getStatus("fresh")).get()
+                .extracting(WriteStatus::getState, WriteStatus::getEmployeeId)
+                .containsExactly(WriteStatus.State.CREATED, 2L);
+    }
+
+    @Test
+    @DisplayName("Junit test for enqueue with missing fields")
+    public void givenEmployeeWithoutEmail_whenEnqueue_thenThrowException(){
+        //when
+        writeBehindQueue.start();
+        assertThrows(InvalidEmployeeException.class,
+                () -> writeBehindQueue.enqueue(Employee.builder().firstName("Adem").lastName("Shanghai").build()));
+        writeBehindQueue.stop();
+
+        //then
+        verify(employeeService, never()).saveEmployees(anyList());
+    }
+
+    private static Employee employee(String email) {
+        return Employee.builder().firstName("Adem").lastName("Shanghai").email(email).build();
+    }
+}
@@ -0,0 +1,14 @@
+-- employees saved before employees_seq existed, their ids came from IDENTITY
+create table employees (
+    id bigint generated by default as identity primary key,
+    email varchar(255) not null,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    version bigint not null,
+    updated_at timestamp(6) with time zone default current_timestamp(6) not null,
+    active boolean default true
+);
+
+insert into employees (email, first_name, last_name, version) values ('adem@gmail.com', 'Adem', 'Shanghai', 0);
+insert into employees (email, first_name, last_name, version) values ('tony@gmail.com', 'Tony', 'Stark', 0);
+insert into employees (id, email, first_name, last_name, version, active) values (70, 'peter@gmail.com', 'Peter', 'Parker', 1, null);